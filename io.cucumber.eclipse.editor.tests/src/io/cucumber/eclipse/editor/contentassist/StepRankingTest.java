@@ -0,0 +1,118 @@
+package io.cucumber.eclipse.editor.contentassist;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.text.similarity.EditDistance;
+import org.apache.commons.text.similarity.LongestCommonSubsequenceDistance;
+import org.junit.jupiter.api.Test;
+
+import io.cucumber.eclipse.editor.contentassist.CucumberTemplates.CucumberStepProposal;
+import io.cucumber.eclipse.editor.steps.ExpressionDefinition;
+import io.cucumber.eclipse.editor.steps.StepDefinition;
+
+/**
+ * Checks that the {@link StepRanking} gives the proposals the same relevance
+ * as ranking all of them with the full match and distance
+ *
+ * @author christoph
+ *
+ */
+public class StepRankingTest {
+
+	private static final List<String> EXPRESSIONS = List.of("I have {int} cukes in my belly",
+			"I have {int} cukes in my {word}", "I eat {int} cukes", "^I eat (\\d+) cucumbers?$",
+			"the belly is {string}", "I wait {int} hour(s)", "a step with/without alternatives",
+			"I have no cukes", "there are {float} cukes left", "^the (.*) is empty$", "nothing matches here",
+			"I have {int} cukes in my belly and {int} in my bag");
+
+	/**
+	 * line text and the prefix typed so far
+	 */
+	private static final List<String[]> LINES = List.of(new String[] { "I have 42 cukes in my belly", "I have 4" },
+			new String[] { "I eat 3 cucumbers", "I eat 3 cucumbers" }, new String[] { "the belly is \"full\"", "" },
+			new String[] { "I wait 1 hour", "x" }, new String[] { "a step without alternatives", "a step w" },
+			new String[] { "the bag is empty", "the bag" }, new String[] { "something else entirely", "so" },
+			new String[] { "", "" });
+
+	@Test
+	public void sameRelevanceAsFullRanking() {
+		for (String[] line : LINES) {
+			Map<String, Integer> expected = relevances(rankAll(proposals(line)));
+			List<CucumberStepProposal> proposals = proposals(line);
+			Map<String, Integer> actual = relevances(
+					new StepRanking(proposals.size()).select(proposals, Locale.ENGLISH));
+			assertEquals(expected, actual, line[0]);
+		}
+	}
+
+	@Test
+	public void selectsTheBestRanked() {
+		for (String[] line : LINES) {
+			for (int limit = 1; limit <= 4; limit++) {
+				List<Integer> expected = sortedRelevances(rankAll(proposals(line))).subList(0, limit);
+				List<Integer> actual = sortedRelevances(new StepRanking(limit).select(proposals(line), Locale.ENGLISH));
+				assertEquals(expected, actual, line[0] + " top " + limit);
+			}
+		}
+	}
+
+	/**
+	 * The ranking as it was done before, computing the match and distance of
+	 * every step definition
+	 */
+	private static List<CucumberStepProposal> rankAll(List<CucumberStepProposal> proposals) {
+		int prefixMatch = StepRanking.PREFIX_MATCH;
+		EditDistance<Integer> distance = new LongestCommonSubsequenceDistance();
+		for (CucumberStepProposal proposal : proposals) {
+			String prefix = proposal.getLinePrefix();
+			ExpressionDefinition definition = proposal.getStepDefinition().getExpression();
+			if (definition.getText().startsWith(prefix)) {
+				proposal.setRelevance(prefixMatch);
+			} else if (definition.matchIgnoreTypes(proposal.getLineText(), Locale.ENGLISH)) {
+				proposal.setRelevance(Integer.MAX_VALUE);
+			} else {
+				String lineText = proposal.getLineText();
+				String expressionText = definition.getTextWithoutVariables();
+				proposal.setRelevance(prefixMatch - distance.apply(lineText, expressionText));
+			}
+		}
+		return proposals;
+	}
+
+	private static List<CucumberStepProposal> proposals(String[] line) {
+		Map<StepDefinition, StepSignature> signatures = new ConcurrentHashMap<>();
+		List<CucumberStepProposal> proposals = new ArrayList<>();
+		for (String expression : EXPRESSIONS) {
+			StepDefinition definition = new StepDefinition(expression, expression, new ExpressionDefinition(expression),
+					StepDefinition.NO_SOURCE, StepDefinition.NO_LINE_NUMBER, "Steps", "glue", null, null);
+			proposals.add(new CucumberStepProposal(definition, null, line[0], line[1], signatures));
+		}
+		return proposals;
+	}
+
+	private static Map<String, Integer> relevances(List<CucumberStepProposal> proposals) {
+		Map<String, Integer> relevances = new HashMap<>();
+		for (CucumberStepProposal proposal : proposals) {
+			relevances.put(proposal.getStepDefinition().getExpression().getText(), proposal.getRelevance());
+		}
+		return relevances;
+	}
+
+	private static List<Integer> sortedRelevances(List<CucumberStepProposal> proposals) {
+		List<Integer> relevances = new ArrayList<>();
+		for (CucumberStepProposal proposal : proposals) {
+			relevances.add(proposal.getRelevance());
+		}
+		relevances.sort(Comparator.reverseOrder());
+		return relevances;
+	}
+
+}
@@ -0,0 +1,51 @@
+package io.cucumber.eclipse.editor.steps;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+import io.cucumber.cucumberexpressions.Expression;
+
+/**
+ * Checks that {@link ExpressionDefinition} compiles its match-all expression
+ * only once per locale
+ *
+ * @author christoph
+ *
+ */
+public class ExpressionDefinitionTest {
+
+	@Test
+	public void matchesIgnoringTypes() {
+		ExpressionDefinition definition = new ExpressionDefinition("I have {int} cukes in my {word}");
+		assertTrue(definition.matchIgnoreTypes("I have many cukes in my big belly", Locale.ENGLISH));
+		assertFalse(definition.matchIgnoreTypes("I have many cucumbers", Locale.ENGLISH));
+	}
+
+	@Test
+	public void compilesOncePerLocale() {
+		ExpressionDefinition definition = new ExpressionDefinition("I have {int} cukes");
+		Expression english = definition.getMatchAllExpression(Locale.ENGLISH);
+		for (int i = 0; i < 1000; i++) {
+			assertSame(english, definition.getMatchAllExpression(Locale.ENGLISH));
+			assertTrue(definition.matchIgnoreTypes("I have 42 cukes", Locale.ENGLISH));
+		}
+		Expression german = definition.getMatchAllExpression(Locale.GERMAN);
+		assertNotSame(english, german);
+		assertSame(german, definition.getMatchAllExpression(Locale.GERMAN));
+	}
+
+	@Test
+	public void remembersInvalidExpressions() {
+		ExpressionDefinition definition = new ExpressionDefinition("^I have (unbalanced$");
+		Expression invalid = definition.getMatchAllExpression(Locale.ENGLISH);
+		assertSame(invalid, definition.getMatchAllExpression(Locale.ENGLISH));
+		assertFalse(definition.matchIgnoreTypes("I have (unbalanced", Locale.ENGLISH));
+	}
+
+}
@@ -0,0 +1,141 @@
+package io.cucumber.eclipse.editor.steps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Round trips of the {@link StepDefinitionsFormat} including data of other
+ * versions and corrupted data
+ *
+ * @author christoph
+ *
+ */
+public class StepDefinitionsFormatTest {
+
+	/**
+	 * id, label, package name, source name, line number, expression language,
+	 * expression text, source path, library
+	 */
+	private static final int RECORD_SIZE = 9 * Integer.BYTES;
+
+	@Test
+	public void roundTrip() throws IOException {
+		Map<IResource, Set<StepDefinition>> content = content();
+		Map<IResource, Set<StepDefinition>> read = StepDefinitionsFormat.read(write(content));
+		assertNotNull(read);
+		assertEquals(content.keySet(), read.keySet());
+		for (IResource resource : content.keySet()) {
+			assertEquals(content.get(resource), read.get(resource));
+			assertEquals(content.get(resource).size(), read.get(resource).size());
+			assertEquals(libraries(content.get(resource)), libraries(read.get(resource)));
+		}
+	}
+
+	@Test
+	public void roundTripOfDecodedData() throws IOException {
+		Map<IResource, Set<StepDefinition>> content = content();
+		Map<IResource, Set<StepDefinition>> read = StepDefinitionsFormat.read(write(content));
+		assertEquals(content, StepDefinitionsFormat.read(write(read)));
+	}
+
+	@Test
+	public void otherVersionsAreIgnored() throws IOException {
+		byte[] data = write(content());
+		ByteBuffer.wrap(data).putInt(Integer.BYTES, ByteBuffer.wrap(data).getInt(Integer.BYTES) + 1);
+		assertNull(StepDefinitionsFormat.read(data));
+	}
+
+	@Test
+	public void otherFormatsAreIgnored() throws IOException {
+		assertNull(StepDefinitionsFormat.read(new byte[0]));
+		byte[] data = write(content());
+		data[0] = 0;
+		assertNull(StepDefinitionsFormat.read(data));
+	}
+
+	@Test
+	public void truncatedDataIsCorrupted() throws IOException {
+		byte[] data = write(content());
+		for (int length : new int[] { 3 * Integer.BYTES, data.length / 2, data.length - 1 }) {
+			byte[] truncated = Arrays.copyOf(data, length);
+			assertThrows(IOException.class, () -> StepDefinitionsFormat.read(truncated));
+		}
+	}
+
+	@Test
+	public void corruptedStringTableIsCorrupted() throws IOException {
+		byte[] data = write(content());
+		// the number of strings follows the magic number and version
+		ByteBuffer.wrap(data).putInt(2 * Integer.BYTES, Integer.MAX_VALUE);
+		assertThrows(IOException.class, () -> StepDefinitionsFormat.read(data));
+	}
+
+	@Test
+	public void corruptedRecordsAreSkipped() throws IOException {
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		IResource file = root.getFile(IPath.fromPortableString("/project/src/Steps.java"));
+		Map<IResource, Set<StepDefinition>> content = Map.of(file, Set.of(step("I have {int} cukes", file, 1)));
+		byte[] data = write(content);
+		// the expression text of the only (and therefore last) record
+		int textRef = data.length - RECORD_SIZE + 6 * Integer.BYTES;
+		ByteBuffer.wrap(data).putInt(textRef, Integer.MAX_VALUE);
+		Map<IResource, Set<StepDefinition>> read = StepDefinitionsFormat.read(data);
+		assertNotNull(read);
+		assertTrue(read.isEmpty());
+	}
+
+	private static byte[] write(Map<IResource, Set<StepDefinition>> content) throws IOException {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		StepDefinitionsFormat.write(content, stream);
+		return stream.toByteArray();
+	}
+
+	private static Map<IResource, Set<StepDefinition>> content() {
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		IProject project = root.getProject("project");
+		IResource steps = root.getFile(IPath.fromPortableString("/project/src/main/java/glue/Steps.java"));
+		IResource other = root.getFile(IPath.fromPortableString("/project/src/main/java/glue/Other Steps.java"));
+		Map<IResource, Set<StepDefinition>> content = new HashMap<>();
+		content.put(steps, Set.of(step("I have {int} cukes", steps, 10), step("^I eat (\\d+) cukes$", steps, 20),
+				step("it is ünïcödé", steps, 30)));
+		content.put(other, Set.of(step("I have {int} cukes", other, 5)));
+		// steps of a library have no source and a derived label
+		content.put(project, Set.of(new StepDefinition("lib.Steps#given", StepDefinition.NO_LABEL,
+				new ExpressionDefinition("a library step"), StepDefinition.NO_SOURCE, () -> -1, "lib.Steps#given", "",
+				"/repository/lib/steps.jar", () -> null, () -> null)));
+		return content;
+	}
+
+	private static Set<String> libraries(Set<StepDefinition> steps) {
+		Set<String> libraries = new HashSet<>();
+		for (StepDefinition step : steps) {
+			libraries.add(step.getId() + "=" + step.getLibrary());
+		}
+		return libraries;
+	}
+
+	private static StepDefinition step(String expression, IResource source, int line) {
+		return new StepDefinition(source.getName() + ":" + line, "Steps.method" + line + "()",
+				new ExpressionDefinition(expression), source, line, "method" + line, "glue", null, "description");
+	}
+
+}
@@ -60,15 +60,27 @@ public class CucumberExpressionParserSupport {
 	 * @return a template representing this step definition
 	 */
 	public static Template createTemplate(StepDefinition definition, String contextId) {
-		String expressionString = definition.getExpression().getText();
-		if (isRegularExpression(expressionString)) {
-			return new RegularExpressionTemplate(definition, contextId);
+		return createTemplate(definition, new ParsedExpression(definition.getExpression().getText()), contextId);
+	}
+
+	/**
+	 * Creates a {@link Template} from {@link StepDefinition} reusing an already
+	 * parsed expression
+	 * 
+	 * @param definition the step definition to use
+	 * @param expression the parsed expression of the step definition
+	 * @param contextId  the context id that should be associated with the template
+	 * @return a template representing this step definition
+	 */
+	public static Template createTemplate(StepDefinition definition, ParsedExpression expression, String contextId) {
+		if (expression.isRegularExpression()) {
+			return new RegularExpressionTemplate(definition, expression, contextId);
 		} else {
-			return new CucumberExpressionTemplate(definition, contextId);
+			return new CucumberExpressionTemplate(definition, expression, contextId);
 		}
 	}
 
-	private static boolean isRegularExpression(String expressionString) {
+	static boolean isRegularExpression(String expressionString) {
 		return BEGIN_ANCHOR.matcher(expressionString).find() || END_ANCHOR.matcher(expressionString).find()
 				|| SCRIPT_STYLE_REGEXP.matcher(expressionString).find();
 	}
@@ -99,8 +111,7 @@ public class CucumberExpressionParserSupport {
 			return new TemplateBuffer(pattern, variables.toArray(TemplateVariable[]::new));
 		} else if (template instanceof CucumberExpressionTemplate) {
 			CucumberExpressionTemplate cucumberTemplate = (CucumberExpressionTemplate) template;
-			CucumberExpressionParser parser = new CucumberExpressionParser();
-			Node ast = parser.parse(pattern);
+			Node ast = cucumberTemplate.expression.getAst();
 			AtomicInteger counter = new AtomicInteger();
 			List<TemplateVariable> variables = new ArrayList<>();
 			parseAst(ast, Arrays.stream(cucumberTemplate.definition.getParameters()).iterator(), counter, variables);
@@ -112,10 +123,14 @@ public class CucumberExpressionParserSupport {
 	}
 
 	public static String replaceVariables(String pattern, VariableReplacement replacement) {
+		return replaceVariables(new ParsedExpression(pattern), replacement);
+	}
+
+	static String replaceVariables(ParsedExpression expression, VariableReplacement replacement) {
+		String pattern = expression.getText();
 		StringBuilder sb = new StringBuilder();
-		if (isRegularExpression(pattern)) {
-			TreeRegexp treeRegexp = new TreeRegexp(pattern);
-			List<GroupBuilder> groups = treeRegexp.getGroupBuilder().getChildren();
+		if (expression.isRegularExpression()) {
+			List<GroupBuilder> groups = expression.getGroups();
 			int start = 0;
 			for (GroupBuilder groupBuilder_ : groups) {
 				sb.append(pattern.substring(start, groupBuilder_.getEndIndex()));
@@ -128,13 +143,42 @@ public class CucumberExpressionParserSupport {
 				sb.append(pattern.substring(start, pattern.length() - 1));
 			}
 		} else {
-			CucumberExpressionParser parser = new CucumberExpressionParser();
-			Node ast = parser.parse(pattern);
-			replaceVariables(ast, replacement, sb);
+			replaceVariables(expression.getAst(), replacement, sb);
 		}
 		return sb.toString();
 	}
 
+	/**
+	 * Computes the literal text parts of an expression that must be contained in
+	 * any text that matches the expression, regardless of parameters, optional
+	 * text and alternatives
+	 * 
+	 * @param pattern the expression text
+	 * @return the required text parts, might be empty if nothing is known about
+	 *         the expression (e.g. for regular expressions)
+	 */
+	public static String[] getRequiredText(String pattern) {
+		return getRequiredText(new ParsedExpression(pattern));
+	}
+
+	static String[] getRequiredText(ParsedExpression expression) {
+		if (expression.isRegularExpression() || expression.getText().indexOf('\\') >= 0) {
+			return new String[0];
+		}
+		try {
+			Node ast = expression.getAst();
+			List<Node> childs = ast.nodes();
+			if (childs == null) {
+				return new String[0];
+			}
+			return childs.stream().filter(node -> node.type() == Type.TEXT_NODE).map(Node::text)
+					.filter(text -> !text.isBlank()).toArray(String[]::new);
+		} catch (RuntimeException e) {
+			// nothing is known about invalid expressions, callers have to try a match
+			return new String[0];
+		}
+	}
+
 	private static void replaceVariables(Node node, VariableReplacement replacement, StringBuilder buffer) {
 		Type type = node.type();
 		switch (type) {
@@ -252,12 +296,12 @@ public class CucumberExpressionParserSupport {
 	private static final class CucumberExpressionTemplate extends Template {
 
 		private final StepDefinition definition;
+		private final ParsedExpression expression;
 
-		public CucumberExpressionTemplate(StepDefinition definition, String contextId) {
-			super(definition.getExpression().getText(), definition.getLabel(), contextId,
-					definition.getExpression().getText(), true);
+		public CucumberExpressionTemplate(StepDefinition definition, ParsedExpression expression, String contextId) {
+			super(expression.getText(), definition.getLabel(), contextId, expression.getText(), true);
 			this.definition = definition;
-
+			this.expression = expression;
 		}
 	}
 
@@ -267,13 +311,11 @@ public class CucumberExpressionParserSupport {
 		private final StepDefinition definition;
 
 		@SuppressWarnings("deprecation")
-		public RegularExpressionTemplate(StepDefinition definition, String contextId) {
-			super(definition.getExpression().getText(), definition.getLabel(), contextId,
-					definition.getExpression().getText(), true);
+		public RegularExpressionTemplate(StepDefinition definition, ParsedExpression expression, String contextId) {
+			super(expression.getText(), definition.getLabel(), contextId, expression.getText(), true);
 			this.definition = definition;
-			TreeRegexp treeRegexp = new TreeRegexp(definition.getExpression().getText());
-			groups = treeRegexp.getGroupBuilder().getChildren();
-			String pattern = definition.getExpression().getText();
+			groups = expression.getGroups();
+			String pattern = expression.getText();
 			boolean startMarker = pattern.startsWith("^");
 			boolean endMarker = pattern.endsWith("$");
 			if (startMarker) {
@@ -0,0 +1,112 @@
+package io.cucumber.cucumberexpressions;
+
+import java.util.List;
+
+import io.cucumber.cucumberexpressions.Ast.Node;
+import io.cucumber.cucumberexpressions.CucumberExpressionParserSupport.VariableReplacement;
+
+/**
+ * Holds everything derived from the text of a step expression (the parsed AST
+ * or regular expression groups and the texts with replaced variables) so it is
+ * only computed once no matter how often it is needed.
+ * <p>
+ * All values are computed lazily, instances can be shared between threads.
+ * </p>
+ * 
+ * @author christoph
+ *
+ */
+public final class ParsedExpression {
+
+	private final String text;
+	private final boolean regularExpression;
+	private volatile Node ast;
+	private volatile List<GroupBuilder> groups;
+	private volatile String textWithoutVariables;
+	private volatile String matchAllText;
+	private volatile String[] requiredText;
+
+	/**
+	 * @param text the text of the expression
+	 */
+	public ParsedExpression(String text) {
+		this.text = text;
+		this.regularExpression = CucumberExpressionParserSupport.isRegularExpression(text);
+	}
+
+	/**
+	 * @return the text of the expression
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * @return <code>true</code> if this is a regular expression,
+	 *         <code>false</code> if it is a cucumber expression
+	 */
+	public boolean isRegularExpression() {
+		return regularExpression;
+	}
+
+	/**
+	 * @return the expression text with all variables removed
+	 */
+	public String getTextWithoutVariables() {
+		String value = textWithoutVariables;
+		if (value == null) {
+			textWithoutVariables = value = CucumberExpressionParserSupport.replaceVariables(this,
+					VariableReplacement.DELETE);
+		}
+		return value;
+	}
+
+	/**
+	 * @return the expression text with all variables replaced by a variable that
+	 *         matches any value
+	 */
+	public String getMatchAllText() {
+		String value = matchAllText;
+		if (value == null) {
+			matchAllText = value = CucumberExpressionParserSupport.replaceVariables(this,
+					VariableReplacement.MATCH_ALL);
+		}
+		return value;
+	}
+
+	/**
+	 * @return the literal text parts that must be contained in any matching text
+	 * @see CucumberExpressionParserSupport#getRequiredText(String)
+	 */
+	public String[] getRequiredText() {
+		String[] value = requiredText;
+		if (value == null) {
+			requiredText = value = CucumberExpressionParserSupport.getRequiredText(this);
+		}
+		return value;
+	}
+
+	/**
+	 * @return the AST of this cucumber expression
+	 * @throws CucumberExpressionException if the expression is invalid
+	 */
+	Node getAst() {
+		Node value = ast;
+		if (value == null) {
+			ast = value = new CucumberExpressionParser().parse(text);
+		}
+		return value;
+	}
+
+	/**
+	 * @return the top level groups of this regular expression
+	 */
+	List<GroupBuilder> getGroups() {
+		List<GroupBuilder> value = groups;
+		if (value == null) {
+			groups = value = new TreeRegexp(text).getGroupBuilder().getChildren();
+		}
+		return value;
+	}
+
+}
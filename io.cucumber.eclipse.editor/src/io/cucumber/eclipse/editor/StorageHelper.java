@@ -4,11 +4,14 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInput;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutput;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
@@ -16,16 +19,13 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 
-import io.cucumber.eclipse.editor.steps.ExpressionDefinition;
-import io.cucumber.eclipse.editor.steps.StepDefinition;
-import io.cucumber.eclipse.editor.steps.StepParameter;
-
 public class StorageHelper {
 
 	private static final String OUTPUT_FOLDER = ".cucumber";
@@ -73,6 +73,58 @@ public class StorageHelper {
 		}
 	}
 
+	/**
+	 * Writes a file into the build directory of the project, the content is
+	 * streamed to a temporary file that atomically replaces the file afterwards
+	 * (so readers never see a partially written file) and the file is refreshed
+	 * 
+	 * @param filename the name of the file
+	 * @param project  the project
+	 * @param monitor  the progress monitor
+	 * @param writer   writes the content of the file
+	 * @throws CoreException if the file can't be refreshed
+	 * @throws IOException   if writing fails
+	 */
+	public static void saveIntoBuildDirectory(String filename, IProject project, IProgressMonitor monitor,
+			ContentWriter writer) throws CoreException, IOException {
+		SubMonitor subMonitor = SubMonitor.convert(monitor, "Saving data", 100);
+		IFolder target = getOutputFolder(project);
+		createFolder(target, subMonitor.newChild(10));
+		IFile buildFile = target.getFile(filename);
+		IPath location = buildFile.getLocation();
+		if (location == null) {
+			// not in the local file system, go through the workspace
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			writer.write(buffer);
+			saveIntoBuildDirectory(filename, project, subMonitor.newChild(90),
+					new ByteArrayInputStream(buffer.toByteArray()));
+			return;
+		}
+		Path path = location.toPath();
+		Path temp = Files.createTempFile(path.getParent(), filename, ".tmp");
+		try {
+			try (OutputStream stream = Files.newOutputStream(temp)) {
+				writer.write(stream);
+			}
+			try {
+				Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+		buildFile.refreshLocal(IResource.DEPTH_ZERO, subMonitor.newChild(90));
+	}
+
+	/**
+	 * Writes the content of a file
+	 */
+	public interface ContentWriter {
+
+		void write(OutputStream stream) throws IOException;
+	}
+
 	private static void createFolder(IFolder folder, IProgressMonitor monitor) throws CoreException {
 		if (folder.exists()) {
 			return;
@@ -86,37 +138,4 @@ public class StorageHelper {
 		folder.create(true, true, subMonitor.newChild(1));
 	}
 
-
-	public static void writeStepDefinition(StepDefinition stepDefinition, ObjectOutput out) throws IOException {
-		out.writeObject(stepDefinition.getId());
-		out.writeObject(stepDefinition.getLabel());
-		out.writeObject(stepDefinition.getPackageName());
-		out.writeObject(stepDefinition.getSourceName());
-		out.writeInt(stepDefinition.getLineNumber());
-		out.writeObject(stepDefinition.getExpression().getLang());
-		out.writeObject(stepDefinition.getExpression().getText());
-		IResource source = stepDefinition.getSource();
-		if (source != null) {
-			out.writeObject(source.getFullPath().toString());
-		} else {
-			out.writeObject(null);
-		}
-	}
-
-	public static StepDefinition readStepDefinition(ObjectInput in) throws ClassNotFoundException, IOException {
-		String id = (String) in.readObject();
-		String label = (String) in.readObject();
-		String packageName = (String) in.readObject();
-		String sourceName = (String) in.readObject();
-		int line = in.readInt();
-		String expLang = (String) in.readObject();
-		String expStr = (String) in.readObject();
-		String sourceRef = (String) in.readObject();
-		IResource resource = ResourceHelper.find(sourceRef);
-		ExpressionDefinition expression = new ExpressionDefinition(expStr, expLang);
-		// FIXME
-		return new StepDefinition(id, label, expression, resource, line, sourceName, packageName, new StepParameter[0],
-				null);
-	}
-
 }
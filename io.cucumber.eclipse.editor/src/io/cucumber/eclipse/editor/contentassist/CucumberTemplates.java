@@ -1,31 +1,54 @@
 package io.cucumber.eclipse.editor.contentassist;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IInformationControl;
 import org.eclipse.jface.text.IInformationControlCreator;
 import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.ITextOperationTarget;
 import org.eclipse.jface.text.ITextViewer;
 import org.eclipse.jface.text.Region;
+import org.eclipse.jface.text.contentassist.ContentAssistEvent;
+import org.eclipse.jface.text.contentassist.ContentAssistantFacade;
+import org.eclipse.jface.text.contentassist.ICompletionListener;
 import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.jface.text.contentassist.ICompletionProposalExtension5;
 import org.eclipse.jface.text.link.LinkedModeModel;
+import org.eclipse.jface.text.source.ISourceViewer;
+import org.eclipse.jface.text.source.ISourceViewerExtension4;
 import org.eclipse.jface.text.templates.DocumentTemplateContext;
 import org.eclipse.jface.text.templates.Template;
 import org.eclipse.jface.text.templates.TemplateBuffer;
@@ -33,6 +56,7 @@ import org.eclipse.jface.text.templates.TemplateContext;
 import org.eclipse.jface.text.templates.TemplateContextType;
 import org.eclipse.jface.text.templates.TemplateException;
 import org.eclipse.jface.text.templates.TemplateProposal;
+import org.eclipse.swt.custom.StyledText;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.widgets.Shell;
 
@@ -42,8 +66,10 @@ import io.cucumber.eclipse.editor.CucumberServiceRegistry;
 import io.cucumber.eclipse.editor.Images;
 import io.cucumber.eclipse.editor.document.GherkinEditorDocument;
 import io.cucumber.eclipse.editor.document.GherkinKeyword;
+import io.cucumber.eclipse.editor.steps.IStepDefinitionsListener;
 import io.cucumber.eclipse.editor.steps.IStepDefinitionsProvider;
 import io.cucumber.eclipse.editor.steps.StepDefinition;
+import io.cucumber.eclipse.editor.steps.StepDefinitionIndex;
 
 /**
  * Bridging cucumber glue step definitions to the eclipse template framework
@@ -58,6 +84,25 @@ public class CucumberTemplates {
 
 	private static final ConcurrentMap<IProject, StepDefSearchJob> jobMap = new ConcurrentHashMap<>();
 
+	static {
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(event -> {
+			if (event.getResource() instanceof IProject) {
+				StepDefSearchJob job = jobMap.remove(event.getResource());
+				if (job != null) {
+					job.dispose();
+				}
+			}
+		}, IResourceChangeEvent.PRE_CLOSE | IResourceChangeEvent.PRE_DELETE);
+	}
+
+	/**
+	 * How long (in ms) to wait for step definitions if none are known for a
+	 * project so far
+	 */
+	private static final long COLD_START_TIMEOUT = 1000;
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
 	private static final Comparator<CucumberTemplateProposal> DISPLAYSTRING_ORDER = (t1, t2) -> {
 		return t1.getDisplayString().compareToIgnoreCase(t2.getDisplayString());
 	};
@@ -82,6 +127,26 @@ public class CucumberTemplates {
 	 */
 	public static ICompletionProposal[] computeTemplateProposals(ITextViewer viewer, int offset,
 			Predicate<CucumberStepProposal> stepFilter) {
+		return computeTemplateProposals(viewer, offset,
+				(stepProposals, locale) -> stepProposals.parallelStream()
+						.filter(stepProposal -> stepFilter.test(stepProposal)).collect(Collectors.toList()));
+	}
+
+	/**
+	 * Computes the template completion proposals for the best ranked step
+	 * definitions
+	 * 
+	 * @param viewer  the viewer to ask for the document
+	 * @param offset  the offset the proposals are supposed to be computed
+	 * @param ranking the ranking that selects the proposals
+	 * @return the list of proposals in relevance order
+	 */
+	static ICompletionProposal[] computeTemplateProposals(ITextViewer viewer, int offset, StepRanking ranking) {
+		return computeTemplateProposals(viewer, offset, ranking::select);
+	}
+
+	private static ICompletionProposal[] computeTemplateProposals(ITextViewer viewer, int offset,
+			BiFunction<List<CucumberStepProposal>, Locale, List<CucumberStepProposal>> selector) {
 		IDocument document = viewer.getDocument();
 
 		LinkedModeModel model = LinkedModeModel.getModel(document, offset);
@@ -103,51 +168,52 @@ public class CucumberTemplates {
 				IResource resource = editorDocument.getResource();
 				if (resource != null) {
 					IProject project = resource.getProject();
-					StepDefSearchJob job = jobMap.compute(project, (p, j) -> {
-						if (j == null) {
-							j = new StepDefSearchJob(p, viewer, offset);
-							j.schedule();
-						} else {
-							if (j.definitions != null) {
-								// update existing definitions
-								j.definitions = null;
-								j.viewer = viewer;
-								j.offset = offset;
-								j.schedule();
-							}
-						}
-						return j;
-					});
-					try {
-						job.join();
-						Collection<StepDefinition> steps = job.definitions;
-						if (steps != null) {
-							GherkinKeyword gherkinKeyword = keywordPrefix.get();
-							String keyWord = gherkinKeyword.getKey();
-							int keyWordLength = keyWord.length() + 1 + stripped;
-							int keyWordOffset = line.getOffset() + keyWordLength;
-							String fullLine = document.get(line.getOffset(), line.getLength()).stripLeading();
-							String text = fullLine.substring(keyWord.length() + 1);
-							String prefix = typed.substring(keyWord.length() + 1);
-							IRegion region = new Region(keyWordOffset, line.getLength() - keyWordLength);
-							CucumberDocumentTemplateContext ctx = new CucumberDocumentTemplateContext(
-									viewer.getDocument(), region);
-							Image icon = Images.getCukesIcon();
-							ICompletionProposal[] proposals = steps.parallelStream()
-									.map(stepDefinition -> new CucumberStepProposal(stepDefinition, gherkinKeyword,
-											text, prefix))
-									.filter(stepProposal -> stepFilter.test(stepProposal)).map(stepProposal -> {
-
-										return new CucumberTemplateProposal(stepProposal.getTemplate(), ctx, region,
-												icon, stepProposal.relevance,
-												stepProposal.getStepDefinition().getDescription());
-									}).sorted(RELEVANCE_ORDER).toArray(ICompletionProposal[]::new);
-							return proposals;
+					StepDefSearchJob job = jobMap.computeIfAbsent(project, StepDefSearchJob::create);
+					ContentAssistSession session = ContentAssistSession.of(viewer);
+					// answer from the last known step definitions right away, the session is
+					// refreshed once the search finds something different
+					Collection<StepDefinition> steps = job.refresh(viewer, offset, session);
+					if (steps == null) {
+						// nothing searched so far, answer from what the providers already know
+						steps = job.getKnownDefinitions();
+					}
+					if (steps == null) {
+						try {
+							// nothing known yet, give the first search a chance to complete
+							job.join(COLD_START_TIMEOUT, null);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						} catch (OperationCanceledException e) {
+							// continue with what we have
 						}
-					} catch (InterruptedException e) {
-						Thread.currentThread().interrupt();
+						steps = job.definitions;
+					}
+					if (steps != null) {
+						session.computed(steps);
+						GherkinKeyword gherkinKeyword = keywordPrefix.get();
+						String keyWord = gherkinKeyword.getKey();
+						int keyWordLength = keyWord.length() + 1 + stripped;
+						int keyWordOffset = line.getOffset() + keyWordLength;
+						String fullLine = document.get(line.getOffset(), line.getLength()).stripLeading();
+						String text = fullLine.substring(keyWord.length() + 1);
+						String prefix = typed.substring(keyWord.length() + 1);
+						IRegion region = new Region(keyWordOffset, line.getLength() - keyWordLength);
+						CucumberDocumentTemplateContext ctx = new CucumberDocumentTemplateContext(
+								viewer.getDocument(), region);
+						Image icon = Images.getCukesIcon();
+						Map<StepDefinition, StepSignature> signatures = job.signatures;
+						List<CucumberStepProposal> stepProposals = steps.stream()
+								.map(stepDefinition -> new CucumberStepProposal(stepDefinition, gherkinKeyword, text,
+										prefix, signatures))
+								.collect(Collectors.toList());
+						ICompletionProposal[] proposals = selector.apply(stepProposals, editorDocument.getLocale())
+								.stream().map(stepProposal -> {
+
+									return new CucumberTemplateProposal(stepProposal.getTemplate(), ctx, region, icon,
+											stepProposal.relevance, stepProposal.getStepDefinition());
+								}).sorted(RELEVANCE_ORDER).toArray(ICompletionProposal[]::new);
+						return proposals;
 					}
-
 				}
 			}
 		} catch (BadLocationException e) {
@@ -171,73 +237,353 @@ public class CucumberTemplates {
 
 	}
 
-	private static final class CucumberTemplateProposal extends TemplateProposal {
+	private static final class CucumberTemplateProposal extends TemplateProposal
+			implements ICompletionProposalExtension5 {
 
-		private String description;
+		private final StepDefinition stepDefinition;
+		private String filterText;
+		private volatile String description;
 
 		public CucumberTemplateProposal(Template template, TemplateContext context, IRegion region, Image image,
-				int relevance, String description) {
+				int relevance, StepDefinition stepDefinition) {
 			super(template, context, region, image, relevance);
-			this.description = description;
-			if (description != null && description.startsWith("<html")) {
-				setInformationControlCreator(new IInformationControlCreator() {
+			this.stepDefinition = stepDefinition;
+		}
+
+		@Override
+		public IInformationControlCreator getInformationControlCreator() {
+			// called in the UI thread once the description was computed in the background
+			String html = description;
+			if (html != null && html.startsWith("<html")) {
+				return new IInformationControlCreator() {
 
 					@Override
 					public IInformationControl createInformationControl(Shell parent) {
-						return new HtmlInformationControl(parent, description);
+						return new HtmlInformationControl(parent, html);
 					}
-				});
+				};
 			}
+			return super.getInformationControlCreator();
 		}
 
 		@Override
-		public String getAdditionalProposalInfo() {
-			if (description != null) {
-				return description;
+		public Object getAdditionalProposalInfo(IProgressMonitor monitor) {
+			// the description is computed on demand only for the selected proposal and might
+			// access the network (e.g. to fetch the javadoc of a library)
+			String info = stepDefinition.getDescription();
+			description = info;
+			if (info != null) {
+				return info;
 			}
 			return getTemplate().getDescription();
 		}
 
+		@Override
+		public String getAdditionalProposalInfo() {
+			return (String) getAdditionalProposalInfo(null);
+		}
+
 		@Override
 		public String getDisplayString() {
 			return getTemplate().getPattern();
 		}
 
+		@Override
+		public boolean validate(IDocument document, int offset, DocumentEvent event) {
+			// called for each keystroke while the popup is open, this filters the proposals
+			// already computed instead of searching all step definitions again
+			int replaceOffset = getReplaceOffset();
+			if (offset < replaceOffset) {
+				return false;
+			}
+			try {
+				return matches(document.get(replaceOffset, offset - replaceOffset));
+			} catch (BadLocationException e) {
+				return false;
+			}
+		}
+
+		private boolean matches(String typed) {
+			if (filterText == null) {
+				filterText = getDisplayString().toLowerCase();
+			}
+			String lowerCase = typed.strip().toLowerCase();
+			if (filterText.startsWith(lowerCase)) {
+				return true;
+			}
+			// proposals are not only found by prefix, so keep them as long as every typed
+			// word still occurs in the step
+			for (String word : WHITESPACE.split(lowerCase)) {
+				if (!filterText.contains(word)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
 	}
 
 	private static final class StepDefSearchJob extends Job {
 
 		private final IProject project;
 
+		private final Set<ContentAssistSession> sessions = new HashSet<>();
+
 		private volatile Collection<StepDefinition> definitions;
 
+		private volatile Map<StepDefinition, StepSignature> signatures = new ConcurrentHashMap<>();
+
 		private ITextViewer viewer;
 
 		private int offset;
 
-		public StepDefSearchJob(IProject project, ITextViewer viewer, int offset) {
+		/**
+		 * the last step definitions of each provider, either searched or pushed,
+		 * guarded by this
+		 */
+		private final Map<IStepDefinitionsProvider, Collection<StepDefinition>> providerDefinitions = new LinkedHashMap<>();
+
+		/**
+		 * the providers that push their changes and have done so at least once, no
+		 * search is required for them anymore, guarded by this
+		 */
+		private final Set<IStepDefinitionsProvider> pushed = new HashSet<>();
+
+		/**
+		 * the listeners registered with the providers, removed once the project is
+		 * gone
+		 */
+		private final Map<IStepDefinitionsProvider, IStepDefinitionsListener> listeners = new ConcurrentHashMap<>();
+
+		private StepDefSearchJob(IProject project) {
 			super("Compute Step definitions");
 			this.project = project;
-			this.viewer = viewer;
-			this.offset = offset;
 			setUser(false);
 			setPriority(Job.BUILD);
 		}
 
+		static StepDefSearchJob create(IProject project) {
+			StepDefSearchJob job = new StepDefSearchJob(project);
+			for (IStepDefinitionsProvider provider : CucumberServiceRegistry.getStepDefinitionsProvider(project)) {
+				IStepDefinitionsListener listener = (changedProject, definitions, deltas) -> job
+						.stepDefinitionsChanged(provider, changedProject, definitions);
+				if (provider.addStepDefinitionsListener(listener)) {
+					job.listeners.put(provider, listener);
+				}
+			}
+			return job;
+		}
+
+		/**
+		 * Unregisters from all providers and cancels a running search, the job is
+		 * not used anymore afterwards
+		 */
+		void dispose() {
+			for (Entry<IStepDefinitionsProvider, IStepDefinitionsListener> entry : listeners.entrySet()) {
+				entry.getKey().removeStepDefinitionsListener(entry.getValue());
+			}
+			listeners.clear();
+			cancel();
+		}
+
+		/**
+		 * Schedules a new search and registers the session for a refresh in case the
+		 * search finds different step definitions
+		 * 
+		 * @return the step definitions known so far or <code>null</code> if no search
+		 *         has completed yet
+		 */
+		synchronized Collection<StepDefinition> refresh(ITextViewer viewer, int offset, ContentAssistSession session) {
+			this.viewer = viewer;
+			this.offset = offset;
+			sessions.add(session);
+			if (definitions == null
+					|| !pushed.containsAll(CucumberServiceRegistry.getStepDefinitionsProvider(project))) {
+				// a running search is executed once more after it has finished
+				schedule();
+			}
+			return definitions;
+		}
+
+		/**
+		 * @return the step definitions the providers know without searching or
+		 *         <code>null</code> if they don't know any
+		 */
+		Collection<StepDefinition> getKnownDefinitions() {
+			Collection<StepDefinition> known = StepDefinitionIndex.INSTANCE.getStepDefinitions(project);
+			return known.isEmpty() ? null : known;
+		}
+
 		@Override
 		public IStatus run(IProgressMonitor monitor) {
+			ITextViewer viewer;
+			int offset;
+			synchronized (this) {
+				viewer = this.viewer;
+				offset = this.offset;
+			}
 			List<IStepDefinitionsProvider> providers = CucumberServiceRegistry.getStepDefinitionsProvider(project);
-			definitions = providers.stream().flatMap(provider -> {
+			Map<IStepDefinitionsProvider, Collection<StepDefinition>> searched = new LinkedHashMap<>();
+			for (IStepDefinitionsProvider provider : providers) {
+				synchronized (this) {
+					if (pushed.contains(provider)) {
+						// the pushed state is current already
+						continue;
+					}
+				}
 				try {
-					return provider.findStepDefinitions(viewer, offset, project, monitor).stream();
+					searched.put(provider, provider.findStepDefinitions(viewer, offset, project, monitor));
 				} catch (CoreException e) {
 					Activator.getDefault().getLog().log(e.getStatus());
 				} catch (RuntimeException e) {
 					Activator.getDefault().getLog().error("Internal error while computing step definitions", e);
 				}
-				return Stream.empty();
-			}).collect(Collectors.toList());
-			return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+			}
+			if (monitor.isCanceled()) {
+				return Status.CANCEL_STATUS;
+			}
+			List<StepDefinition> found;
+			synchronized (this) {
+				providerDefinitions.keySet().retainAll(providers);
+				for (Entry<IStepDefinitionsProvider, Collection<StepDefinition>> entry : searched.entrySet()) {
+					// a state pushed while searching is at least as recent
+					if (!pushed.contains(entry.getKey())) {
+						providerDefinitions.put(entry.getKey(), entry.getValue());
+					}
+				}
+				found = collect();
+			}
+			publish(found);
+			return Status.OK_STATUS;
+		}
+
+		/**
+		 * Replaces the step definitions of a provider with the state it has pushed
+		 */
+		private void stepDefinitionsChanged(IStepDefinitionsProvider provider, IProject changedProject,
+				Collection<StepDefinition> current) {
+			if (!project.equals(changedProject)) {
+				return;
+			}
+			List<StepDefinition> found;
+			synchronized (this) {
+				pushed.add(provider);
+				providerDefinitions.put(provider, current);
+				if (definitions == null) {
+					// the initial search is still running and publishes the pushed state
+					return;
+				}
+				found = collect();
+			}
+			publish(found);
+		}
+
+		/**
+		 * @return the step definitions of all providers, must be called while holding
+		 *         the lock
+		 */
+		private List<StepDefinition> collect() {
+			Set<StepDefinition> all = new LinkedHashSet<>();
+			providerDefinitions.values().forEach(all::addAll);
+			return new ArrayList<>(all);
+		}
+
+		private void publish(List<StepDefinition> found) {
+			StepDefinitionIndex.INSTANCE.update(project, found);
+			List<ContentAssistSession> refresh;
+			synchronized (this) {
+				Collection<StepDefinition> previous = definitions;
+				// an equal result keeps the old instance, sessions compare the definitions they
+				// have shown by identity
+				if (previous == null || !previous.equals(found)) {
+					// keep the signatures of all step definitions that are still in use
+					Map<StepDefinition, StepSignature> oldSignatures = signatures;
+					Map<StepDefinition, StepSignature> newSignatures = new ConcurrentHashMap<>();
+					for (StepDefinition definition : found) {
+						StepSignature signature = oldSignatures.get(definition);
+						if (signature != null) {
+							newSignatures.put(definition, signature);
+						}
+					}
+					signatures = newSignatures;
+					definitions = found;
+				}
+				refresh = new ArrayList<>(sessions);
+				sessions.clear();
+			}
+			for (ContentAssistSession session : refresh) {
+				session.refresh(definitions);
+			}
+		}
+
+	}
+
+	/**
+	 * Tracks the content assist popup of a viewer so proposals computed from
+	 * outdated step definitions can be replaced while the popup is still open
+	 */
+	private static final class ContentAssistSession implements ICompletionListener {
+
+		private static final Map<ITextViewer, ContentAssistSession> SESSIONS = Collections
+				.synchronizedMap(new WeakHashMap<>());
+
+		private final WeakReference<ITextViewer> viewer;
+
+		private volatile boolean active;
+
+		private volatile Collection<StepDefinition> shown;
+
+		private ContentAssistSession(ITextViewer viewer) {
+			this.viewer = new WeakReference<>(viewer);
+		}
+
+		static ContentAssistSession of(ITextViewer viewer) {
+			return SESSIONS.computeIfAbsent(viewer, v -> {
+				ContentAssistSession session = new ContentAssistSession(v);
+				if (v instanceof ISourceViewerExtension4) {
+					ContentAssistantFacade facade = ((ISourceViewerExtension4) v).getContentAssistantFacade();
+					if (facade != null) {
+						facade.addCompletionListener(session);
+					}
+				}
+				return session;
+			});
+		}
+
+		void computed(Collection<StepDefinition> definitions) {
+			shown = definitions;
+		}
+
+		void refresh(Collection<StepDefinition> definitions) {
+			ITextViewer textViewer = viewer.get();
+			if (!active || textViewer == null || definitions == shown) {
+				return;
+			}
+			StyledText widget = textViewer.getTextWidget();
+			if (widget == null || widget.isDisposed()) {
+				return;
+			}
+			widget.getDisplay().asyncExec(() -> {
+				ITextOperationTarget target = textViewer.getTextOperationTarget();
+				if (active && !widget.isDisposed() && definitions != shown && target != null
+						&& target.canDoOperation(ISourceViewer.CONTENTASSIST_PROPOSALS)) {
+					target.doOperation(ISourceViewer.CONTENTASSIST_PROPOSALS);
+				}
+			});
+		}
+
+		@Override
+		public void assistSessionStarted(ContentAssistEvent event) {
+			active = true;
+		}
+
+		@Override
+		public void assistSessionEnded(ContentAssistEvent event) {
+			active = false;
+		}
+
+		@Override
+		public void selectionChanged(ICompletionProposal proposal, boolean smartToggle) {
 		}
 
 	}
@@ -250,18 +596,20 @@ public class CucumberTemplates {
 		private String typed;
 		private Template template;
 		private int relevance;
+		private Map<StepDefinition, StepSignature> signatures;
 
-		private CucumberStepProposal(StepDefinition stepDefinition, GherkinKeyword gherkinKeyword, String text,
-				String typed) {
+		CucumberStepProposal(StepDefinition stepDefinition, GherkinKeyword gherkinKeyword, String text,
+				String typed, Map<StepDefinition, StepSignature> signatures) {
 			this.stepDefinition = stepDefinition;
 			this.gherkinKeyword = gherkinKeyword;
 			this.text = text;
 			this.typed = typed;
+			this.signatures = signatures;
 		}
 
 		public Template getTemplate() {
 			if (template == null) {
-				template = CucumberExpressionParserSupport.createTemplate(stepDefinition, CONTEXT_TYPE.getId());
+				template = getSignature().getTemplate(CONTEXT_TYPE.getId());
 			}
 			return template;
 		}
@@ -276,6 +624,21 @@ public class CucumberTemplates {
 			this.relevance = relevance;
 		}
 
+		/**
+		 * @return the current relevance of this proposal
+		 */
+		public int getRelevance() {
+			return relevance;
+		}
+
+		/**
+		 * @return the signature of the step definition, shared by all proposals until
+		 *         the step definitions change
+		 */
+		StepSignature getSignature() {
+			return signatures.computeIfAbsent(stepDefinition, StepSignature::new);
+		}
+
 		/**
 		 * 
 		 * @return the current line text without the keyword
@@ -0,0 +1,127 @@
+package io.cucumber.eclipse.editor.contentassist;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+import org.apache.commons.text.similarity.EditDistance;
+import org.apache.commons.text.similarity.LongestCommonSubsequenceDistance;
+
+import io.cucumber.eclipse.editor.contentassist.CucumberTemplates.CucumberStepProposal;
+import io.cucumber.eclipse.editor.steps.ExpressionDefinition;
+
+/**
+ * Selects the step definitions that best match the text of a step line.
+ * <p>
+ * A step definition is ranked highest if it matches the whole line, then if
+ * it starts with the text typed so far and then by the longest common
+ * subsequence distance to the line. Instead of computing the expensive match
+ * and distance for every step definition an upper bound for the relevance is
+ * computed from the {@link StepSignature}s first. Candidates are then examined
+ * best bound first and only as long as they can still make it into the
+ * top-k, so the result is exactly the same as ranking everything.
+ * </p>
+ * 
+ * @author christoph
+ *
+ */
+final class StepRanking {
+
+	static final int PREFIX_MATCH = Integer.MAX_VALUE / 2;
+
+	/**
+	 * worst proposal first
+	 */
+	private static final Comparator<CucumberStepProposal> HEAP_ORDER = Comparator
+			.comparingInt(CucumberStepProposal::getRelevance).thenComparing((p1, p2) -> p2.getStepDefinition()
+					.getExpression().getText().compareToIgnoreCase(p1.getStepDefinition().getExpression().getText()));
+
+	private final EditDistance<Integer> distance = new LongestCommonSubsequenceDistance();
+
+	private final int limit;
+
+	/**
+	 * @param limit the maximum number of proposals to select
+	 */
+	StepRanking(int limit) {
+		this.limit = limit;
+	}
+
+	/**
+	 * Selects the best proposals and sets their relevance
+	 * 
+	 * @param proposals all proposals for the current line
+	 * @param locale    the locale of the document
+	 * @return the best proposals in no particular order
+	 */
+	List<CucumberStepProposal> select(List<CucumberStepProposal> proposals, Locale locale) {
+		if (proposals.isEmpty()) {
+			return proposals;
+		}
+		String lineText = proposals.get(0).getLineText();
+		String prefix = proposals.get(0).getLinePrefix();
+		char[] lineCharacters = StepSignature.sortedCharacters(lineText);
+		List<Candidate> candidates = new ArrayList<>(proposals.size());
+		for (CucumberStepProposal proposal : proposals) {
+			candidates.add(new Candidate(proposal, lineText, prefix, lineCharacters));
+		}
+		candidates.sort(null);
+		PriorityQueue<CucumberStepProposal> heap = new PriorityQueue<>(limit + 1, HEAP_ORDER);
+		for (Candidate candidate : candidates) {
+			if (heap.size() == limit && candidate.bound < heap.peek().getRelevance()) {
+				// all remaining candidates have an even lower bound
+				break;
+			}
+			CucumberStepProposal proposal = candidate.proposal;
+			proposal.setRelevance(relevance(candidate, lineText, locale));
+			heap.offer(proposal);
+			if (heap.size() > limit) {
+				heap.poll();
+			}
+		}
+		return new ArrayList<>(heap);
+	}
+
+	private int relevance(Candidate candidate, String lineText, Locale locale) {
+		if (candidate.prefixMatch) {
+			return PREFIX_MATCH;
+		}
+		ExpressionDefinition definition = candidate.proposal.getStepDefinition().getExpression();
+		if (candidate.bound == Integer.MAX_VALUE && definition.matchIgnoreTypes(lineText, locale)) {
+			return Integer.MAX_VALUE;
+		}
+		// TODO configure disable
+		return PREFIX_MATCH - distance.apply(lineText, candidate.proposal.getSignature().getText());
+	}
+
+	private static final class Candidate implements Comparable<Candidate> {
+
+		private final CucumberStepProposal proposal;
+		private final boolean prefixMatch;
+		private final int bound;
+
+		Candidate(CucumberStepProposal proposal, String lineText, String prefix, char[] lineCharacters) {
+			this.proposal = proposal;
+			StepSignature signature = proposal.getSignature();
+			prefixMatch = proposal.getStepDefinition().getExpression().getText().startsWith(prefix);
+			if (prefixMatch) {
+				bound = PREFIX_MATCH;
+			} else if (signature.mayMatch(lineText)) {
+				bound = Integer.MAX_VALUE;
+			} else {
+				// the distance is at least the number of characters not found in the other text
+				int common = signature.commonCharacters(lineCharacters);
+				bound = PREFIX_MATCH - (lineText.length() + signature.getText().length() - 2 * common);
+			}
+		}
+
+		@Override
+		public int compareTo(Candidate o) {
+			return Integer.compare(o.bound, bound);
+		}
+
+	}
+
+}
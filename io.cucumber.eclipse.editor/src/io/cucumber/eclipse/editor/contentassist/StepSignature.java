@@ -0,0 +1,107 @@
+package io.cucumber.eclipse.editor.contentassist;
+
+import java.util.Arrays;
+
+import org.eclipse.jface.text.templates.Template;
+
+import io.cucumber.cucumberexpressions.CucumberExpressionParserSupport;
+import io.cucumber.cucumberexpressions.ParsedExpression;
+import io.cucumber.eclipse.editor.steps.StepDefinition;
+
+/**
+ * Precomputed data of a {@link StepDefinition} that allows to cheaply estimate
+ * how well it matches the text of a step line before the expensive checks are
+ * performed, and the template inserted for it.
+ * 
+ * @author christoph
+ *
+ */
+final class StepSignature {
+
+	private final StepDefinition definition;
+	private final ParsedExpression expression;
+	private final String text;
+	private final char[] characters;
+	private final String[] requiredText;
+	private volatile Template template;
+
+	StepSignature(StepDefinition definition) {
+		this.definition = definition;
+		expression = definition.getExpression().getParsedExpression();
+		text = expression.getTextWithoutVariables();
+		characters = sortedCharacters(text);
+		requiredText = expression.getRequiredText();
+	}
+
+	/**
+	 * @param contextId the context id of the template, must be the same for all
+	 *                  calls
+	 * @return the template for the step definition
+	 */
+	Template getTemplate(String contextId) {
+		Template value = template;
+		if (value == null) {
+			template = value = CucumberExpressionParserSupport.createTemplate(definition, expression, contextId);
+		}
+		return value;
+	}
+
+	/**
+	 * @return the expression text without variables
+	 */
+	String getText() {
+		return text;
+	}
+
+	/**
+	 * Checks if the expression can possibly match the given text, if this returns
+	 * <code>false</code> the expression definitely does not match
+	 * 
+	 * @param lineText the text to check
+	 * @return <code>false</code> if the text misses a part required by the
+	 *         expression
+	 */
+	boolean mayMatch(String lineText) {
+		for (String required : requiredText) {
+			if (!lineText.contains(required)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the number of characters both texts have in common regardless of
+	 * their order, this is an upper bound for the length of their longest common
+	 * subsequence
+	 * 
+	 * @param lineCharacters the sorted characters of the other text
+	 * @return the number of common characters
+	 */
+	int commonCharacters(char[] lineCharacters) {
+		int common = 0;
+		int i = 0;
+		int j = 0;
+		while (i < characters.length && j < lineCharacters.length) {
+			char c1 = characters[i];
+			char c2 = lineCharacters[j];
+			if (c1 == c2) {
+				common++;
+				i++;
+				j++;
+			} else if (c1 < c2) {
+				i++;
+			} else {
+				j++;
+			}
+		}
+		return common;
+	}
+
+	static char[] sortedCharacters(String text) {
+		char[] chars = text.toCharArray();
+		Arrays.sort(chars);
+		return chars;
+	}
+
+}
@@ -0,0 +1,295 @@
+package io.cucumber.eclipse.editor.document;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+import io.cucumber.messages.types.Location;
+import io.cucumber.messages.types.TableCell;
+import io.cucumber.messages.types.TableRow;
+
+/**
+ * Compact storage for the rows of a huge data table or examples table that are
+ * not handed to the Gherkin parser.
+ * <p>
+ * Only the first rows of a table are parsed into AST nodes, all further rows
+ * are replaced by blank lines (so line numbers stay the same) and kept here as
+ * line numbers plus a columnar array of cell values. {@link TableRow}s are only
+ * materialized when someone actually asks for them.
+ * </p>
+ *
+ * @author christoph
+ *
+ */
+final class ElidedTableRows {
+
+	private static final String[] DOC_STRING_SEPARATORS = { "\"\"\"", "```" };
+
+	private final int[] lines;
+	private final int[] indents;
+	// [column][row]
+	private final String[][] values;
+	private final int[][] columns;
+
+	private ElidedTableRows(List<String> rows, int firstLine) {
+		int size = rows.size();
+		int width = cellCount(rows.get(0));
+		lines = new int[size];
+		indents = new int[size];
+		values = new String[width][size];
+		columns = new int[width][size];
+		for (int row = 0; row < size; row++) {
+			String line = rows.get(row);
+			lines[row] = firstLine + row;
+			indents[row] = line.indexOf('|') + 1;
+			splitCells(line, row);
+		}
+	}
+
+	/**
+	 * @return the line number of the first row stored here
+	 */
+	int getFirstLine() {
+		return lines[0];
+	}
+
+	/**
+	 * @return the number of rows stored
+	 */
+	int size() {
+		return lines.length;
+	}
+
+	/**
+	 * Materializes the row at the given index
+	 *
+	 * @param index the index of the row
+	 * @return a new {@link TableRow} for the given index
+	 */
+	TableRow getRow(int index) {
+		List<TableCell> cells = new ArrayList<>(values.length);
+		for (int column = 0; column < values.length; column++) {
+			cells.add(new TableCell(new Location((long) lines[index], (long) columns[column][index]),
+					values[column][index]));
+		}
+		return new TableRow(new Location((long) lines[index], (long) indents[index]), cells,
+				"elided-" + lines[index]);
+	}
+
+	/**
+	 * Merges the given runs of elided rows into the (parsed) rows of a table, a
+	 * table might contain several runs if it is split by comments or blank lines.
+	 * Elided rows are materialized on access only.
+	 *
+	 * @param parsed the rows known to the AST
+	 * @param runs   the runs of the table ordered by line
+	 * @return a list of all rows of the table in document order
+	 */
+	static List<TableRow> merge(List<TableRow> parsed, Collection<ElidedTableRows> runs) {
+		return new CompleteRows(parsed, runs);
+	}
+
+	/**
+	 * Replaces all table rows exceeding the given threshold with blank lines
+	 *
+	 * @param text      the text of the document
+	 * @param threshold the maximum number of rows of a table to keep in the text
+	 * @param elided    list that receives the elided rows of each table
+	 * @return the text to pass to the parser
+	 */
+	static String elide(String text, int threshold, List<ElidedTableRows> elided) {
+		if (countLines(text) <= threshold) {
+			// no table can exceed the threshold
+			return text;
+		}
+		String[] lines = text.split("(?<=\n)", -1);
+		StringBuilder result = null;
+		String docString = null;
+		int tableStart = -1;
+		for (int i = 0; i <= lines.length; i++) {
+			String line = i < lines.length ? lines[i].strip() : "";
+			if (docString == null && line.startsWith("|")) {
+				if (tableStart < 0) {
+					tableStart = i;
+				}
+				continue;
+			}
+			if (tableStart >= 0) {
+				int keep = tableStart + threshold;
+				List<String> rows = i > keep ? Arrays.asList(lines).subList(keep, i) : List.of();
+				boolean elide = !rows.isEmpty() && isConsistent(lines[tableStart], rows);
+				if (elide && result == null) {
+					result = new StringBuilder(text.length());
+					for (int j = 0; j < tableStart; j++) {
+						result.append(lines[j]);
+					}
+				}
+				if (result != null) {
+					for (int j = tableStart; j < (elide ? keep : i); j++) {
+						result.append(lines[j]);
+					}
+				}
+				if (elide) {
+					elided.add(new ElidedTableRows(rows, keep + 1));
+					for (String row : rows) {
+						result.append(lineEnd(row));
+					}
+				}
+			}
+			tableStart = -1;
+			if (i == lines.length) {
+				break;
+			}
+			if (docString == null) {
+				docString = docStringSeparator(line);
+			} else if (line.startsWith(docString)) {
+				docString = null;
+			}
+			if (result != null) {
+				result.append(lines[i]);
+			}
+		}
+		return result == null ? text : result.toString();
+	}
+
+	private static int countLines(String text) {
+		int count = 1;
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) == '\n') {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static String docStringSeparator(String line) {
+		for (String separator : DOC_STRING_SEPARATORS) {
+			if (line.startsWith(separator)) {
+				return separator;
+			}
+		}
+		return null;
+	}
+
+	private static String lineEnd(String line) {
+		if (line.endsWith("\r\n")) {
+			return "\r\n";
+		}
+		if (line.endsWith("\n")) {
+			return "\n";
+		}
+		return "";
+	}
+
+	private static boolean isConsistent(String header, List<String> rows) {
+		// rows with a different number of cells must be reported by the parser
+		int width = cellCount(header);
+		for (String row : rows) {
+			if (cellCount(row) != width) {
+				return false;
+			}
+		}
+		return width > 0;
+	}
+
+	private static int cellCount(String line) {
+		int count = -1;
+		for (int i = line.indexOf('|'); i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (c == '\\') {
+				i++;
+			} else if (c == '|') {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private void splitCells(String line, int row) {
+		StringBuilder cell = new StringBuilder();
+		int column = 0;
+		int cellStart = line.indexOf('|') + 1;
+		for (int i = cellStart; i < line.length() && column < values.length; i++) {
+			char c = line.charAt(i);
+			if (c == '\\' && i + 1 < line.length()) {
+				char next = line.charAt(++i);
+				if (next == 'n') {
+					cell.append('\n');
+				} else if (next == '|' || next == '\\') {
+					cell.append(next);
+				} else {
+					cell.append(c).append(next);
+				}
+			} else if (c == '|') {
+				int leading = 0;
+				while (leading < cell.length() && Character.isWhitespace(cell.charAt(leading))) {
+					leading++;
+				}
+				values[column][row] = cell.toString().strip();
+				columns[column][row] = cellStart + leading + 1;
+				column++;
+				cell.setLength(0);
+				cellStart = i + 1;
+			} else {
+				cell.append(c);
+			}
+		}
+	}
+
+	private static final class CompleteRows extends AbstractList<TableRow> implements RandomAccess {
+
+		private final List<TableRow> parsed;
+		private final ElidedTableRows[] runs;
+		// number of parsed rows before each run
+		private final int[] parsedBefore;
+		private final int size;
+
+		CompleteRows(List<TableRow> parsed, Collection<ElidedTableRows> runs) {
+			this.parsed = parsed;
+			this.runs = runs.toArray(ElidedTableRows[]::new);
+			this.parsedBefore = new int[this.runs.length];
+			int parsedIndex = 0;
+			int elided = 0;
+			for (int i = 0; i < this.runs.length; i++) {
+				int firstLine = this.runs[i].getFirstLine();
+				while (parsedIndex < parsed.size() && parsed.get(parsedIndex).getLocation().getLine() < firstLine) {
+					parsedIndex++;
+				}
+				parsedBefore[i] = parsedIndex;
+				elided += this.runs[i].size();
+			}
+			this.size = parsed.size() + elided;
+		}
+
+		@Override
+		public TableRow get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException(index);
+			}
+			int consumed = 0;
+			for (int i = 0; i < runs.length; i++) {
+				int parsedRows = parsedBefore[i] - consumed;
+				if (index < parsedRows) {
+					return parsed.get(consumed + index);
+				}
+				index -= parsedRows;
+				if (index < runs[i].size()) {
+					return runs[i].getRow(index);
+				}
+				index -= runs[i].size();
+				consumed = parsedBefore[i];
+			}
+			return parsed.get(consumed + index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+	}
+
+}
@@ -0,0 +1,104 @@
+package io.cucumber.eclipse.editor.document;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+
+import io.cucumber.gherkin.GherkinDialect;
+import io.cucumber.gherkin.GherkinDialectProvider;
+
+/**
+ * Cheap detection of the language of a Gherkin document that only looks at the
+ * header of the document (comments, tags and blank lines before the
+ * <code>Feature</code> line) instead of performing a full parse.
+ * <p>
+ * The sniffer remembers where the header ends, so changes that happen after
+ * the header are answered from the previous result without reading the
+ * document again.
+ * </p>
+ *
+ * @author christoph
+ *
+ */
+public final class GherkinDialectSniffer {
+
+	private static final Pattern LANGUAGE_PATTERN = Pattern.compile("^#\\s*language\\s*:\\s*([a-zA-Z\\-_]+)\\s*$");
+
+	private final GherkinDialectProvider provider = new GherkinDialectProvider();
+
+	private String language;
+
+	private int headerEnd = -1;
+
+	/**
+	 * Detects the language of the given document
+	 *
+	 * @param document the document to inspect
+	 * @return the language of the document, the default language if none is
+	 *         specified or the specified one is unknown
+	 */
+	public String sniff(IDocument document) {
+		scan(document);
+		return language;
+	}
+
+	/**
+	 * Updates the detected language after the given change of the document
+	 *
+	 * @param event the event describing the change
+	 * @return the (possibly unchanged) language of the document
+	 */
+	public String update(DocumentEvent event) {
+		// a change located after the header can not change the language
+		if (language == null || event.getOffset() <= headerEnd) {
+			scan(event.getDocument());
+		}
+		return language;
+	}
+
+	private void scan(IDocument document) {
+		String lang = null;
+		int end = document.getLength();
+		try {
+			int lines = document.getNumberOfLines();
+			for (int i = 0; i < lines; i++) {
+				IRegion info = document.getLineInformation(i);
+				String line = document.get(info.getOffset(), info.getLength()).trim();
+				if (line.isEmpty() || line.startsWith("@")) {
+					continue;
+				}
+				if (line.startsWith("#")) {
+					Matcher matcher = LANGUAGE_PATTERN.matcher(line);
+					if (lang == null && matcher.matches()) {
+						lang = matcher.group(1);
+					}
+					continue;
+				}
+				// first non header line, this should be the Feature keyword
+				end = info.getOffset();
+				break;
+			}
+		} catch (BadLocationException e) {
+			// document was changed concurrently, force a rescan next time
+			end = Integer.MAX_VALUE;
+		}
+		headerEnd = end;
+		language = normalize(lang);
+	}
+
+	private String normalize(String lang) {
+		if (lang != null) {
+			try {
+				return provider.getDialect(lang).map(GherkinDialect::getLanguage)
+						.orElseGet(() -> provider.getDefaultDialect().getLanguage());
+			} catch (RuntimeException e) {
+			}
+		}
+		return provider.getDefaultDialect().getLanguage();
+	}
+
+}
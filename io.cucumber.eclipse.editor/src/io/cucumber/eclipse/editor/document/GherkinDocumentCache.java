@@ -0,0 +1,229 @@
+package io.cucumber.eclipse.editor.document;
+
+import java.util.Comparator;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.eclipse.core.filebuffers.FileBuffers;
+import org.eclipse.core.filebuffers.IFileBuffer;
+import org.eclipse.core.filebuffers.IFileBufferListener;
+import org.eclipse.core.filebuffers.ITextFileBuffer;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jface.text.IDocument;
+
+/**
+ * Bounded cache of parsed {@link GherkinEditorDocument}s keyed by their
+ * {@link IDocument}.
+ * <p>
+ * Entries are evicted when the backing file buffer is disposed, and in least
+ * recently used order as soon as either the number of cached documents or the
+ * estimated retained memory exceeds the configured budget. The cache records
+ * hit, miss and retained byte counters that can be used to monitor its
+ * effectiveness.
+ * </p>
+ *
+ * @author christoph
+ *
+ */
+public final class GherkinDocumentCache {
+
+	/**
+	 * Default maximum number of documents held by the cache
+	 */
+	public static final int DEFAULT_MAX_DOCUMENTS = 64;
+
+	/**
+	 * Default maximum of (estimated) bytes retained by the cache
+	 */
+	public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+	private final ConcurrentHashMap<IDocument, CacheEntry> cache = new ConcurrentHashMap<>();
+	private final AtomicLong accessClock = new AtomicLong();
+	private final AtomicLong retainedBytes = new AtomicLong();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final int maxDocuments;
+	private final long maxBytes;
+
+	GherkinDocumentCache(int maxDocuments, long maxBytes) {
+		this.maxDocuments = maxDocuments;
+		this.maxBytes = maxBytes;
+		FileBuffers.getTextFileBufferManager().addFileBufferListener(new IFileBufferListener() {
+
+			@Override
+			public void underlyingFileMoved(IFileBuffer buffer, IPath path) {
+
+			}
+
+			@Override
+			public void underlyingFileDeleted(IFileBuffer buffer) {
+
+			}
+
+			@Override
+			public void stateValidationChanged(IFileBuffer buffer, boolean isStateValidated) {
+
+			}
+
+			@Override
+			public void stateChanging(IFileBuffer buffer) {
+
+			}
+
+			@Override
+			public void stateChangeFailed(IFileBuffer buffer) {
+
+			}
+
+			@Override
+			public void dirtyStateChanged(IFileBuffer buffer, boolean isDirty) {
+
+			}
+
+			@Override
+			public void bufferDisposed(IFileBuffer buffer) {
+				if (buffer instanceof ITextFileBuffer) {
+					remove(((ITextFileBuffer) buffer).getDocument());
+				}
+			}
+
+			@Override
+			public void bufferCreated(IFileBuffer buffer) {
+
+			}
+
+			@Override
+			public void bufferContentReplaced(IFileBuffer buffer) {
+
+			}
+
+			@Override
+			public void bufferContentAboutToBeReplaced(IFileBuffer buffer) {
+
+			}
+		});
+	}
+
+	/**
+	 * Returns the cached document for the given key, (re)parsing it with the given
+	 * function if there is no entry yet or the cached one is outdated.
+	 *
+	 * @param document the document to lookup
+	 * @param parser   function to create a new {@link GherkinEditorDocument}
+	 * @return the cached or newly parsed document
+	 */
+	GherkinEditorDocument get(IDocument document, Function<IDocument, GherkinEditorDocument> parser) {
+		CacheEntry entry = cache.compute(document, (key, value) -> {
+			if (value == null || value.document.isDirty()) {
+				misses.increment();
+				CacheEntry newEntry = new CacheEntry(parser.apply(key));
+				retainedBytes.addAndGet(newEntry.bytes - (value == null ? 0 : value.bytes));
+				return newEntry;
+			}
+			hits.increment();
+			return value;
+		});
+		entry.lastAccess = accessClock.incrementAndGet();
+		trim(document);
+		return entry.document;
+	}
+
+	/**
+	 * Removes the given document from the cache
+	 *
+	 * @param document the document to remove
+	 */
+	public void remove(IDocument document) {
+		if (document == null) {
+			return;
+		}
+		CacheEntry removed = cache.remove(document);
+		if (removed != null) {
+			retainedBytes.addAndGet(-removed.bytes);
+		}
+	}
+
+	/**
+	 * @param document the document to check
+	 * @return <code>true</code> if the document is currently cached
+	 */
+	public boolean contains(IDocument document) {
+		return document != null && cache.containsKey(document);
+	}
+
+	/**
+	 * @return the number of lookups that where answered from the cache
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of lookups that required a parse of the document
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the number of entries that where evicted because the cache exceeded
+	 *         its budget
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * @return the estimated number of bytes currently retained by the cached
+	 *         documents
+	 */
+	public long getRetainedBytes() {
+		return retainedBytes.get();
+	}
+
+	/**
+	 * @return the number of currently cached documents
+	 */
+	public int size() {
+		return cache.size();
+	}
+
+	private void trim(IDocument current) {
+		while (cache.size() > maxDocuments || retainedBytes.get() > maxBytes) {
+			Entry<IDocument, CacheEntry> eldest = cache.entrySet().stream()
+					.filter(e -> e.getKey() != current)
+					.min(Comparator.comparingLong(e -> e.getValue().lastAccess)).orElse(null);
+			if (eldest == null) {
+				return;
+			}
+			if (cache.remove(eldest.getKey(), eldest.getValue())) {
+				retainedBytes.addAndGet(-eldest.getValue().bytes);
+				evictions.increment();
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "GherkinDocumentCache [size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+				+ ", evictions=" + getEvictionCount() + ", retainedBytes=" + getRetainedBytes() + "]";
+	}
+
+	private static final class CacheEntry {
+
+		private final GherkinEditorDocument document;
+		private final long bytes;
+		private volatile long lastAccess;
+
+		CacheEntry(GherkinEditorDocument document) {
+			this.document = document;
+			this.bytes = document.getEstimatedSize();
+		}
+
+	}
+
+}
@@ -2,13 +2,15 @@ package io.cucumber.eclipse.editor.document;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.TreeMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -35,9 +37,14 @@ import org.eclipse.jface.text.Position;
 import io.cucumber.gherkin.GherkinDialect;
 import io.cucumber.gherkin.GherkinDialectProvider;
 import io.cucumber.gherkin.GherkinParser;
+import io.cucumber.messages.types.DataTable;
 import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.Examples;
+import io.cucumber.messages.types.GherkinDocument;
 import io.cucumber.messages.types.Source;
 import io.cucumber.messages.types.SourceMediaType;
+import io.cucumber.messages.types.Step;
+import io.cucumber.messages.types.TableRow;
 
 /**
  * Provides unified access to Gherkin feature file content from the Eclipse editor.
@@ -73,18 +80,40 @@ public final class GherkinEditorDocument extends GherkinStream {
 	// TODO allow definition of default language in preferences
 	private final GherkinDialectProvider provider = new GherkinDialectProvider();
 
-	private static final ConcurrentHashMap<IDocument, GherkinEditorDocument> DOCUMENT_MAP = new ConcurrentHashMap<>();
+	/**
+	 * Number of rows of a single table that are parsed into AST nodes, all further
+	 * rows are only materialized on demand
+	 */
+	public static final int LARGE_TABLE_THRESHOLD = 500;
+
+	private static final GherkinDocumentCache DOCUMENT_CACHE = new GherkinDocumentCache(
+			GherkinDocumentCache.DEFAULT_MAX_DOCUMENTS, GherkinDocumentCache.DEFAULT_MAX_BYTES);
 	private volatile boolean dirty;
 	private final IDocument document;
+	private final long estimatedSize;
 	private final GherkinDialect dialect;
 	private final Locale locale;
 
+	/**
+	 * runs of elided rows keyed by the line of their first row
+	 */
+	private final NavigableMap<Long, ElidedTableRows> elidedRows;
+
 	private Supplier<IResource> resourceSupplier;
 
-	private GherkinEditorDocument(IDocument document, Supplier<IResource> resourceSupplier) {
+	private GherkinEditorDocument(IDocument document, Supplier<IResource> resourceSupplier, int tableThreshold) {
+		this(document, resourceSupplier, tableThreshold, new ArrayList<>());
+	}
+
+	private GherkinEditorDocument(IDocument document, Supplier<IResource> resourceSupplier, int tableThreshold,
+			List<ElidedTableRows> elided) {
 
-		super(getEnvelopes(document, resourceSupplier));
+		super(getEnvelopes(document, tableThreshold, elided));
 		this.resourceSupplier = resourceSupplier;
+		this.elidedRows = new TreeMap<>();
+		for (ElidedTableRows rows : elided) {
+			elidedRows.put((long) rows.getFirstLine(), rows);
+		}
 		document.addDocumentListener(new IDocumentListener() {
 
 			@Override
@@ -99,6 +128,8 @@ public final class GherkinEditorDocument extends GherkinStream {
 			}
 		});
 		this.document = document;
+		// the text is held twice (source envelope + AST nodes) in (at worst) UTF-16
+		this.estimatedSize = 4L * document.getLength();
 
 		Optional<String> langOpt = getFeature().map(f -> f.getLanguage()).filter(Objects::nonNull)
 				.filter(Predicate.not(String::isBlank));
@@ -126,17 +157,81 @@ public final class GherkinEditorDocument extends GherkinStream {
 
 	}
 
-	private static Envelope[] getEnvelopes(IDocument document, Supplier<IResource> resourceSupplier) {
+	private static Envelope[] getEnvelopes(IDocument document, int tableThreshold, List<ElidedTableRows> elided) {
 		GherkinParser parser = GherkinParser.builder()
 				.includeSource(true)
 				.includeGherkinDocument(true)
 				.includePickles(false)
 				.build();
-		Source source = new Source("", document.get(), SourceMediaType.TEXT_X_CUCUMBER_GHERKIN_PLAIN);
+		String text = ElidedTableRows.elide(document.get(), tableThreshold, elided);
+		Source source = new Source("", text, SourceMediaType.TEXT_X_CUCUMBER_GHERKIN_PLAIN);
 		Envelope envelope = Envelope.of(source);
 		return parser.parse(envelope).toArray(Envelope[]::new);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Rows of huge tables that where not parsed are materialized on access.
+	 * </p>
+	 */
+	@Override
+	public Stream<List<TableRow>> getTableBodys() {
+		return super.getTableBodys().map(this::completeRows);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Rows of huge tables that where not parsed are materialized on access.
+	 * </p>
+	 */
+	@Override
+	public Stream<DataTable> getDataTables() {
+		return super.getDataTables().map(table -> {
+			List<TableRow> rows = completeRows(table.getRows());
+			return rows == table.getRows() ? table : new DataTable(table.getLocation(), rows);
+		});
+	}
+
+	/**
+	 * Tables with more than {@value #LARGE_TABLE_THRESHOLD} rows are only partially
+	 * parsed, so the {@link GherkinDocument} does not contain all rows of such a
+	 * table. Use {@link #parseComplete(IDocument, Supplier)} if a full AST is
+	 * required (e.g. to write the document back).
+	 * 
+	 * @return <code>true</code> if some table rows where not parsed into the AST
+	 */
+	public boolean hasElidedRows() {
+		return !elidedRows.isEmpty();
+	}
+
+	/**
+	 * Returns all rows of the body of the given examples, including rows of huge
+	 * tables that where not parsed
+	 * 
+	 * @param examples the examples of this document
+	 * @return the complete rows of the table body
+	 */
+	public List<TableRow> getTableBody(Examples examples) {
+		return completeRows(examples.getTableBody());
+	}
+
+	private List<TableRow> completeRows(List<TableRow> rows) {
+		if (elidedRows.isEmpty() || rows.isEmpty()) {
+			return rows;
+		}
+		// a run always follows a parsed row of its table, so all runs of the table
+		// start after its first and at most one line after its last parsed row
+		long firstLine = rows.get(0).getLocation().getLine();
+		long lastLine = rows.get(rows.size() - 1).getLocation().getLine();
+		NavigableMap<Long, ElidedTableRows> runs = elidedRows.subMap(firstLine, false, lastLine + 1, true);
+		if (runs.isEmpty()) {
+			return rows;
+		}
+		return ElidedTableRows.merge(rows, runs.values());
+	}
+
 	/**
 	 * @return the dialect of the document
 	 */
@@ -184,6 +279,18 @@ public final class GherkinEditorDocument extends GherkinStream {
 		return new Position(offset + location.getColumn().orElse(0l).intValue() - 1, 1);
 	}
 
+	/**
+	 * Computes the exact range of the text of a step (excluding the keyword)
+	 * 
+	 * @param step the step of this document
+	 * @return the position of the step text
+	 * @throws BadLocationException if the step is not part of the document
+	 */
+	public Position getStepTextPosition(Step step) throws BadLocationException {
+		Position position = getPosition(step.getLocation());
+		return new Position(position.getOffset() + step.getKeyword().length(), step.getText().length());
+	}
+
 	/**
 	 * Gets the end-of-line position for the specified Gherkin location.
 	 * Handles different line ending characters (CR, LF, CRLF).
@@ -299,12 +406,7 @@ public final class GherkinEditorDocument extends GherkinStream {
 	public static GherkinEditorDocument get(IDocument document, boolean create) {
 		Objects.requireNonNull(document, "document can't be null");
 		if (isCompatible(document)) {
-			return DOCUMENT_MAP.compute(document, (key, value) -> {
-				if (value == null || value.dirty) {
-					return parse(key, () -> resourceForDocument(key));
-				}
-				return value;
-			});
+			return DOCUMENT_CACHE.get(document, key -> parse(key, () -> resourceForDocument(key)));
 		}
 		if (create) {
 			return parse(document, () -> null);
@@ -332,9 +434,7 @@ public final class GherkinEditorDocument extends GherkinStream {
 				return get(buffer.getDocument());
 			}
 			try {
-				try (InputStream stream = file.getContents()) {
-					return parse(new Document(IOUtils.toString(stream, file.getCharset())), () -> file);
-				}
+				return read(file);
 			} catch (IOException e) {
 				return null;
 			} catch (CoreException e) {
@@ -344,6 +444,21 @@ public final class GherkinEditorDocument extends GherkinStream {
 		return null;
 	}
 
+	/**
+	 * Reads and parses the given file without looking for an open buffer, the
+	 * returned document is detached from any editor.
+	 * 
+	 * @param file the file to read
+	 * @return the parsed document
+	 * @throws CoreException if the file can't be read
+	 * @throws IOException   if reading the file failed
+	 */
+	public static GherkinEditorDocument read(IFile file) throws CoreException, IOException {
+		try (InputStream stream = file.getContents()) {
+			return parse(new Document(IOUtils.toString(stream, file.getCharset())), () -> file);
+		}
+	}
+
 	/**
 	 * Checks if the given document is currently cached.
 	 * 
@@ -351,7 +466,14 @@ public final class GherkinEditorDocument extends GherkinStream {
 	 * @return true if the document is currently cached
 	 */
 	public static boolean has(IDocument document) {
-		return DOCUMENT_MAP.contains(document);
+		return DOCUMENT_CACHE.contains(document);
+	}
+
+	/**
+	 * @return the cache used for documents managed by the TextFileBufferManager
+	 */
+	public static GherkinDocumentCache getCache() {
+		return DOCUMENT_CACHE;
 	}
 
 	/**
@@ -394,7 +516,19 @@ public final class GherkinEditorDocument extends GherkinStream {
 	 * @return a detached GherkinEditorDocument instance
 	 */
 	public static GherkinEditorDocument parse(IDocument document, Supplier<IResource> resource) {
-		return new GherkinEditorDocument(document, resource);
+		return new GherkinEditorDocument(document, resource, LARGE_TABLE_THRESHOLD);
+	}
+
+	/**
+	 * Creates a new instance without caching where all rows of all tables are
+	 * parsed into the AST regardless of their size.
+	 * 
+	 * @param document the document to parse
+	 * @param resource supplier for the associated resource, or null if none
+	 * @return a detached and complete GherkinEditorDocument instance
+	 */
+	public static GherkinEditorDocument parseComplete(IDocument document, Supplier<IResource> resource) {
+		return new GherkinEditorDocument(document, resource, Integer.MAX_VALUE);
 	}
 
 	/**
@@ -417,6 +551,17 @@ public final class GherkinEditorDocument extends GherkinStream {
 		return null;
 	}
 
+	boolean isDirty() {
+		return dirty;
+	}
+
+	/**
+	 * @return the estimated number of bytes retained by this document
+	 */
+	long getEstimatedSize() {
+		return estimatedSize;
+	}
+
 	private static boolean isWildcard(String keyword) {
 		return "*".equals(keyword);
 	}
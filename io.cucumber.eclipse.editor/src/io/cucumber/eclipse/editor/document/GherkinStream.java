@@ -1,10 +1,24 @@
 package io.cucumber.eclipse.editor.document;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 import java.util.stream.Stream;
 
+import org.apache.commons.io.IOUtils;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+
+import io.cucumber.gherkin.GherkinParser;
 import io.cucumber.messages.types.Background;
 import io.cucumber.messages.types.DataTable;
 import io.cucumber.messages.types.Envelope;
@@ -14,6 +28,8 @@ import io.cucumber.messages.types.FeatureChild;
 import io.cucumber.messages.types.GherkinDocument;
 import io.cucumber.messages.types.ParseError;
 import io.cucumber.messages.types.Scenario;
+import io.cucumber.messages.types.Source;
+import io.cucumber.messages.types.SourceMediaType;
 import io.cucumber.messages.types.Step;
 import io.cucumber.messages.types.TableRow;
 import io.cucumber.messages.types.Tag;
@@ -26,6 +42,12 @@ import io.cucumber.messages.types.Tag;
  */
 public class GherkinStream {
 
+	private static final GherkinParser AST_PARSER = GherkinParser.builder()
+			.includeSource(false)
+			.includeGherkinDocument(true)
+			.includePickles(false)
+			.build();
+
 	private final Envelope[] envelopes;
 
 	public GherkinStream(Envelope... envelopes) {
@@ -107,5 +129,70 @@ public class GherkinStream {
 		return Arrays.stream(envelopes).map(Envelope::getParseError).filter(o -> o.isPresent()).map(o -> o.get());
 	}
 
+	/**
+	 * Parses the given file without the need of an {@link org.eclipse.jface.text.IDocument}, the
+	 * result only contains the AST and the parse errors but not the source text.
+	 * This is intended for batch operations on (closed) files where the text is
+	 * not needed afterwards.
+	 * 
+	 * @param file the file to parse
+	 * @return the stream of the parsed file
+	 * @throws CoreException if the file can't be read
+	 * @throws IOException   if reading the file failed
+	 */
+	public static GherkinStream parse(IFile file) throws CoreException, IOException {
+		try (InputStream stream = file.getContents(); Reader reader = new InputStreamReader(stream, file.getCharset())) {
+			return parse(file.getFullPath().toString(), reader);
+		}
+	}
+
+	/**
+	 * Parses the content of the given reader, the result only contains the AST
+	 * and the parse errors but not the source text.
+	 * 
+	 * @param uri    the uri to use for the source
+	 * @param reader the reader to consume, the reader is not closed
+	 * @return the stream of the parsed content
+	 * @throws IOException if reading failed
+	 */
+	public static GherkinStream parse(String uri, Reader reader) throws IOException {
+		// the gherkin parser needs the full text, but it is only referenced until the
+		// parse is done
+		Source source = new Source(uri, IOUtils.toString(reader), SourceMediaType.TEXT_X_CUCUMBER_GHERKIN_PLAIN);
+		return new GherkinStream(AST_PARSER.parse(Envelope.of(source)).toArray(Envelope[]::new));
+	}
+
+	/**
+	 * Parses the given files in parallel and passes each result to the consumer.
+	 * The number of files processed concurrently is bounded by the number of
+	 * available processors, and results are not retained after the consumer
+	 * returns so memory usage does not depend on the number of files.
+	 * 
+	 * @param files    the files to parse
+	 * @param consumer the consumer for the results, must be thread-safe, files
+	 *                 that can't be read are passed with a <code>null</code>
+	 *                 stream
+	 * @param monitor  the monitor to report progress and check for cancellation
+	 * @throws OperationCanceledException if the monitor was canceled
+	 */
+	public static void parse(Collection<IFile> files, BiConsumer<IFile, GherkinStream> consumer,
+			IProgressMonitor monitor) throws OperationCanceledException {
+		SubMonitor subMonitor = SubMonitor.convert(monitor, "Parsing feature files", files.size());
+		files.parallelStream().forEach(file -> {
+			if (subMonitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			GherkinStream result;
+			try {
+				result = parse(file);
+			} catch (CoreException | IOException e) {
+				result = null;
+			}
+			consumer.accept(file, result);
+			synchronized (subMonitor) {
+				subMonitor.worked(1);
+			}
+		});
+	}
 
 }
@@ -35,6 +35,10 @@ public class GherkingFormatHandler extends AbstractHandler {
 	}
 
 	private void formatDocument(GherkinEditorDocument document, IFile file) {
+		if (document.hasElidedRows()) {
+			// printing must not lose the rows of huge tables
+			document = GherkinEditorDocument.parseComplete(document.getDocument(), () -> file);
+		}
 		Optional<GherkinDocument> gherkinDocument = document.getGherkinDocument();
 		if (gherkinDocument.isEmpty()) {
 			return;
@@ -10,6 +10,7 @@ import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.hyperlink.IHyperlink;
 import org.eclipse.jface.text.hyperlink.IHyperlinkDetector;
@@ -38,8 +39,6 @@ public class StepHyperlinkDetector implements IHyperlinkDetector {
 			if (openers.size() > 0) {
 				try {
 					int lineNumber = document.getLineOfOffset(offset) + 1;
-					IRegion lineInfo = document.getLineInformationOfOffset(offset);
-					int lineStartOffset = lineInfo.getOffset();
 					if (MarkerFactory.hasMarker(editorDocument.getResource(), MarkerFactory.UNMATCHED_STEP,
 							lineNumber)) {
 						return null;
@@ -47,12 +46,13 @@ public class StepHyperlinkDetector implements IHyperlinkDetector {
 
 					IHyperlink[] hyperlinks = editorDocument.getSteps()
 							.filter(step -> step.getLocation().getLine() == lineNumber).map(step -> {
-								long column = step.getLocation().getColumn().orElse(0l) - 1;
-								String keyword = step.getKeyword();
-								Long statementStartOffset = lineStartOffset + column + keyword.length();
-								IRegion stepRegion = new Region(statementStartOffset.intValue(), step.getText().length());
-
-								return new StepHyperlink(stepRegion, step, textViewer, resource, openers);
+								try {
+									Position position = editorDocument.getStepTextPosition(step);
+									IRegion stepRegion = new Region(position.getOffset(), position.getLength());
+									return new StepHyperlink(stepRegion, step, textViewer, resource, openers);
+								} catch (BadLocationException e) {
+									return null;
+								}
 							}).filter(Objects::nonNull).toArray(IHyperlink[]::new);
 					if (hyperlinks.length > 0) {
 						return hyperlinks;
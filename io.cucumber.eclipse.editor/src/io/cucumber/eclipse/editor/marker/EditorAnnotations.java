@@ -0,0 +1,199 @@
+package io.cucumber.eclipse.editor.marker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.core.filebuffers.FileBuffers;
+import org.eclipse.core.filebuffers.ITextFileBuffer;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.ISynchronizable;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.IAnnotationModel;
+import org.eclipse.jface.text.source.IAnnotationModelExtension;
+import org.eclipse.ui.texteditor.MarkerAnnotation;
+
+import io.cucumber.eclipse.editor.document.GherkinEditorDocument;
+import io.cucumber.eclipse.editor.preferences.CucumberEditorPreferences;
+
+/**
+ * Shows validation results of open and modified documents as transient
+ * {@link Annotation}s in the annotation model of the editor instead of writing
+ * {@link IMarker}s.
+ * <p>
+ * Writing markers requires workspace operations that compete with builds and
+ * notify all resource listeners, while annotations are only visible to the
+ * editors of the document. Markers are written again as soon as the document is
+ * saved, until then the outdated markers of the same type are hidden in the
+ * editor.
+ * </p>
+ *
+ * @author christoph
+ *
+ */
+public final class EditorAnnotations {
+
+	/**
+	 * Annotation type for errors
+	 */
+	public static final String ERROR_TYPE = "org.eclipse.ui.workbench.texteditor.error";
+
+	/**
+	 * Annotation type for warnings
+	 */
+	public static final String WARNING_TYPE = "org.eclipse.ui.workbench.texteditor.warning";
+
+	/**
+	 * Annotation type for unmatched steps, matches the type used for
+	 * {@link MarkerFactory#UNMATCHED_STEP} markers
+	 */
+	public static final String UNMATCHED_STEP_TYPE = "cucumber.eclipse.annotation.gherkin.unmatched_step";
+
+	private EditorAnnotations() {
+	}
+
+	/**
+	 * @return <code>true</code> if the user has not disabled reporting validation
+	 *         results of modified documents as editor annotations
+	 */
+	public static boolean isEnabled() {
+		return CucumberEditorPreferences.of().isEditorOnlyValidation();
+	}
+
+	/**
+	 * Checks if validation results for the given document should be reported as
+	 * editor annotations instead of markers, this is the case if the document is
+	 * currently modified in an editor and the user has not disabled this mode
+	 *
+	 * @param document the document to check
+	 * @return <code>true</code> if annotations should be used
+	 */
+	public static boolean isEditorOnly(IDocument document) {
+		if (!isEnabled()) {
+			return false;
+		}
+		ITextFileBuffer buffer = FileBuffers.getTextFileBufferManager().getTextFileBuffer(document);
+		return buffer != null && buffer.isDirty() && buffer.getAnnotationModel() != null;
+	}
+
+	/**
+	 * Replaces all annotations of the given group in the annotation model of the
+	 * document with new ones, markers of the group are hidden until the group is
+	 * {@link #clear(IDocument, String) cleared}
+	 *
+	 * @param document the document to annotate
+	 * @param group    identifies the annotations to replace (e.g. the marker type
+	 *                 the annotations stand for)
+	 * @param type     the annotation type
+	 * @param messages the messages of the new annotations keyed by (1-based) line
+	 */
+	public static void update(IDocument document, String group, String type, Map<Integer, String> messages) {
+		replace(document, group, type, messages, true);
+		// the annotations are the most recent validation result
+		MarkerIndex.update(GherkinEditorDocument.resourceForDocument(document), group, messages.keySet());
+	}
+
+	/**
+	 * Removes all annotations of the given group from the annotation model of the
+	 * document and shows the markers of the group again
+	 *
+	 * @param document the document
+	 * @param group    the group of annotations to remove
+	 */
+	public static void clear(IDocument document, String group) {
+		replace(document, group, WARNING_TYPE, Map.of(), false);
+	}
+
+	private static void replace(IDocument document, String group, String type, Map<Integer, String> messages,
+			boolean hideMarkers) {
+		ITextFileBuffer buffer = FileBuffers.getTextFileBufferManager().getTextFileBuffer(document);
+		if (buffer == null) {
+			return;
+		}
+		IAnnotationModel model = buffer.getAnnotationModel();
+		if (model == null) {
+			return;
+		}
+		Map<Annotation, Position> added = new HashMap<>();
+		for (Entry<Integer, String> entry : messages.entrySet()) {
+			Position position = linePosition(document, entry.getKey());
+			if (position != null) {
+				added.put(new ValidationAnnotation(type, entry.getValue(), group), position);
+			}
+		}
+		Object lock = model instanceof ISynchronizable ? ((ISynchronizable) model).getLockObject() : null;
+		if (lock == null) {
+			lock = model;
+		}
+		synchronized (lock) {
+			List<Annotation> removed = new ArrayList<>();
+			List<Annotation> toggled = new ArrayList<>();
+			Iterator<Annotation> iterator = model.getAnnotationIterator();
+			while (iterator.hasNext()) {
+				Annotation annotation = iterator.next();
+				if (annotation instanceof ValidationAnnotation && group.equals(((ValidationAnnotation) annotation).group)) {
+					removed.add(annotation);
+				} else if (annotation instanceof MarkerAnnotation && annotation.isMarkedDeleted() != hideMarkers
+						&& isOfType(((MarkerAnnotation) annotation).getMarker(), group)) {
+					// the marker is outdated as long as the annotations are shown
+					annotation.markDeleted(hideMarkers);
+					toggled.add(annotation);
+				}
+			}
+			if (removed.isEmpty() && added.isEmpty() && toggled.isEmpty()) {
+				return;
+			}
+			if (model instanceof IAnnotationModelExtension) {
+				IAnnotationModelExtension extension = (IAnnotationModelExtension) model;
+				extension.replaceAnnotations(removed.toArray(Annotation[]::new), added);
+				for (Annotation annotation : toggled) {
+					// notifies the editor that the annotation has changed
+					extension.modifyAnnotationPosition(annotation, model.getPosition(annotation));
+				}
+			} else {
+				removed.forEach(model::removeAnnotation);
+				added.forEach(model::addAnnotation);
+			}
+		}
+	}
+
+	private static boolean isOfType(IMarker marker, String type) {
+		try {
+			return marker.exists() && marker.isSubtypeOf(type);
+		} catch (CoreException e) {
+			return false;
+		}
+	}
+
+	private static Position linePosition(IDocument document, int lineNumber) {
+		try {
+			IRegion lineInfo = document.getLineInformation(lineNumber - 1);
+			String line = document.get(lineInfo.getOffset(), lineInfo.getLength());
+			String trimmed = line.trim();
+			return new Position(lineInfo.getOffset() + line.indexOf(trimmed), trimmed.length());
+		} catch (BadLocationException e) {
+			// document changed in the meantime, a new validation is already scheduled
+			return null;
+		}
+	}
+
+	private static final class ValidationAnnotation extends Annotation {
+
+		private final String group;
+
+		ValidationAnnotation(String type, String text, String group) {
+			super(type, false, text);
+			this.group = group;
+		}
+
+	}
+
+}
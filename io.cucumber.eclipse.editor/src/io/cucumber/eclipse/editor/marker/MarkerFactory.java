@@ -1,9 +1,12 @@
 package io.cucumber.eclipse.editor.marker;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
@@ -17,12 +20,14 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IRegion;
-import org.eclipse.jface.text.Region;
+import org.eclipse.jface.text.Position;
 
 import io.cucumber.eclipse.editor.Activator;
+import io.cucumber.eclipse.editor.document.GherkinEditorDocument;
 import io.cucumber.messages.types.Location;
 import io.cucumber.messages.types.ParseError;
 import io.cucumber.messages.types.SourceReference;
+import io.cucumber.messages.types.Step;
 
 /**
  * The marker factory exposes methods to put makers: - unmatched step - gherkin
@@ -67,31 +72,36 @@ public class MarkerFactory {
 
 	public static void validationErrorOnStepDefinition(final IResource resource,
 			Map<Integer, String> errors, boolean persistent) {
-		if (errors == null || errors.isEmpty()) {
-			mark(resource, new IMarkerBuilder() {
-
-				@Override
-				public void build() throws CoreException {
-					deleteStepValidationErrors(resource);
-				}
-
-
-
-			});
-			return;
-		}
-
 		mark(resource, new IMarkerBuilder() {
 			@Override
 			public void build() throws CoreException {
-				deleteStepValidationErrors(resource);
-				for (Entry<Integer, String> entry : errors.entrySet()) {
-					IMarker marker = resource.createMarker(STEPDEF_VALIDATION_ERROR);
-					marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
-					marker.setAttribute(IMarker.MESSAGE, entry.getValue());
-					marker.setAttribute(IMarker.LINE_NUMBER, entry.getKey());
-					marker.setAttribute(IMarker.TRANSIENT, persistent);
+				Map<Object, IMarker> existingMarker = getExistingMarker(resource, STEPDEF_VALIDATION_ERROR);
+				if (errors != null) {
+					for (Entry<Integer, String> entry : errors.entrySet()) {
+						String sourceId = String.valueOf(entry.getKey());
+						IMarker marker = existingMarker.remove(sourceId);
+						if (marker == null) {
+							marker = resource.createMarker(STEPDEF_VALIDATION_ERROR);
+						}
+						Map<String, Object> attributes = new HashMap<>();
+						attributes.put(IMarker.SOURCE_ID, sourceId);
+						attributes.put(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
+						attributes.put(IMarker.MESSAGE, entry.getValue());
+						attributes.put(IMarker.LINE_NUMBER, entry.getKey());
+						attributes.put(IMarker.TRANSIENT, persistent);
+						setAttributes(marker, attributes);
+					}
 				}
+				// markers without a source id are left over from previous versions
+				for (IMarker marker : resource.findMarkers(STEPDEF_VALIDATION_ERROR, true, IResource.DEPTH_INFINITE)) {
+					if (marker.getAttribute(IMarker.SOURCE_ID, "").isBlank()) {
+						marker.delete();
+					}
+				}
+				for (IMarker obsolete : existingMarker.values()) {
+					obsolete.delete();
+				}
+				MarkerIndex.update(resource, STEPDEF_VALIDATION_ERROR, errors == null ? List.of() : errors.keySet());
 			}
 		});
 
@@ -101,13 +111,6 @@ public class MarkerFactory {
 		syntaxErrorOnStepDefinition(stepDefinitionResource, e, 0);
 	}
 
-	private static void deleteStepValidationErrors(final IResource resource) throws CoreException {
-		IMarker[] markers = resource.findMarkers(STEPDEF_VALIDATION_ERROR, true, IResource.DEPTH_INFINITE);
-		for (IMarker marker : markers) {
-			marker.delete();
-		}
-	}
-
 //	public void unmatchedStep(final IDocument gherkinDocument, final GherkinStepWrapper gherkinStepWrapper) {
 //
 //		final IResource gherkinFile = gherkinStepWrapper.getSource();
@@ -175,6 +178,7 @@ public class MarkerFactory {
 			@Override
 			public void build() throws CoreException {
 				Map<Object, IMarker> existingMarker = getExistingMarker(resource, GHERKIN_SYNTAX_ERROR);
+				List<Integer> lines = new ArrayList<>();
 				for (ParseError error : errors) {
 					String sourceId;
 					Integer line;
@@ -190,6 +194,7 @@ public class MarkerFactory {
 						column = -1;
 					}
 					if (line > 0) {
+						lines.add(line);
 						sourceId = line + ":" + column;
 					} else {
 						sourceId = "";
@@ -197,17 +202,19 @@ public class MarkerFactory {
 					IMarker marker = existingMarker.remove(sourceId);
 					if (marker == null) {
 						marker = resource.createMarker(GHERKIN_SYNTAX_ERROR);
-						marker.setAttribute(IMarker.SOURCE_ID, sourceId);
 					}
-					marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
-					marker.setAttribute(IMarker.MESSAGE, error.getMessage());
-					marker.setAttribute(IMarker.LINE_NUMBER, line);
-					marker.setAttribute(IMarker.LINE_NUMBER, line);
-					marker.setAttribute(IMarker.TRANSIENT, persistent);
+					Map<String, Object> attributes = new HashMap<>();
+					attributes.put(IMarker.SOURCE_ID, sourceId);
+					attributes.put(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
+					attributes.put(IMarker.MESSAGE, error.getMessage());
+					attributes.put(IMarker.LINE_NUMBER, line);
+					attributes.put(IMarker.TRANSIENT, persistent);
+					setAttributes(marker, attributes);
 				}
 				for (IMarker obsolete : existingMarker.values()) {
 					obsolete.delete();
 				}
+				MarkerIndex.update(resource, GHERKIN_SYNTAX_ERROR, lines);
 			}
 
 		});
@@ -216,38 +223,83 @@ public class MarkerFactory {
 
 	public static void missingSteps(IResource resource, Map<Integer, Collection<String>> snippets,
 			String snippetType, boolean persistent) {
-		// TODO Auto-generated method stub
+		missingSteps(resource, null, snippets, snippetType, persistent);
+	}
+
+	/**
+	 * Marks the steps without matching glue code, if a document is given the
+	 * markers cover exactly the text of the step, otherwise the whole line
+	 * 
+	 * @param resource    the resource to mark
+	 * @param document    the document the steps where validated with, or
+	 *                    <code>null</code>
+	 * @param snippets    the snippets for the missing steps keyed by line
+	 * @param snippetType the type of the snippets
+	 * @param persistent  if the markers should be persisted
+	 */
+	public static void missingSteps(IResource resource, GherkinEditorDocument document,
+			Map<Integer, Collection<String>> snippets, String snippetType, boolean persistent) {
+		Map<Integer, Step> steps = new HashMap<>();
+		if (document != null) {
+			// computed upfront, the document might change until the markers are written
+			document.getSteps().forEach(step -> steps.putIfAbsent(step.getLocation().getLine().intValue(), step));
+		}
+		Map<Integer, Position> positions = new HashMap<>();
+		for (Integer line : snippets.keySet()) {
+			Step step = steps.get(line);
+			if (step != null) {
+				try {
+					positions.put(line, document.getStepTextPosition(step));
+				} catch (BadLocationException e) {
+					// fall back to a line marker
+				}
+			}
+		}
 		mark(resource, new IMarkerBuilder() {
 			@Override
 			public void build() throws CoreException {
 				Map<Object, IMarker> existingMarker = getExistingMarker(resource, UNMATCHED_STEP);
 				for (Entry<Integer, Collection<String>> entry : snippets.entrySet()) {
 					int lineNumber = entry.getKey();
+					Step step = steps.get(lineNumber);
+					Position position = positions.get(lineNumber);
 					int index = 0;
 					for (String snippet : entry.getValue()) {
 						String sourceId = snippetType + "_" + lineNumber + "_" + (index++);
 						IMarker marker = existingMarker.remove(sourceId);
 						if (marker == null) {
 							marker = resource.createMarker(UNMATCHED_STEP);
-							marker.setAttribute(IMarker.SOURCE_ID, sourceId);
 						}
-						marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
-						marker.setAttribute(IMarker.MESSAGE, "Step  does not have a matching glue code");
-						marker.setAttribute(IMarker.LINE_NUMBER, lineNumber);
-						marker.setAttribute(IMarker.TRANSIENT, persistent);
-						marker.setAttribute(UNMATCHED_STEP_SNIPPET_ATTRIBUTE, snippet);
-						marker.setAttribute(UNMATCHED_STEP_SNIPPTE_TYPE_ATTRIBUTE, snippetType);
-//					marker.setAttribute(IMarker.CHAR_START, stepRegion.getOffset());
-//					marker.setAttribute(IMarker.CHAR_END, stepRegion.getOffset() + stepRegion.getLength());
-//					marker.setAttribute(UNMATCHED_STEP_KEYWORD_ATTRIBUTE, gherkinStep.getKeyword());
-//					marker.setAttribute(UNMATCHED_STEP_NAME_ATTRIBUTE, gherkinStep.getName());
-//					marker.setAttribute(UNMATCHED_STEP_PATH_ATTRIBUTE, gherkinFile.getFullPath().toString());
+						Map<String, Object> attributes = new HashMap<>();
+						attributes.put(IMarker.SOURCE_ID, sourceId);
+						attributes.put(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
+						attributes.put(IMarker.MESSAGE, "Step  does not have a matching glue code");
+						attributes.put(IMarker.LINE_NUMBER, lineNumber);
+						attributes.put(IMarker.TRANSIENT, persistent);
+						attributes.put(UNMATCHED_STEP_SNIPPET_ATTRIBUTE, snippet);
+						attributes.put(UNMATCHED_STEP_SNIPPTE_TYPE_ATTRIBUTE, snippetType);
+						if (position != null) {
+							attributes.put(IMarker.CHAR_START, position.getOffset());
+							attributes.put(IMarker.CHAR_END, position.getOffset() + position.getLength());
+							attributes.put(UNMATCHED_STEP_KEYWORD_ATTRIBUTE, step.getKeyword());
+							attributes.put(UNMATCHED_STEP_NAME_ATTRIBUTE, step.getText());
+							attributes.put(UNMATCHED_STEP_PATH_ATTRIBUTE, resource.getFullPath().toString());
+						} else {
+							// a reused marker must not keep the position of a previous validation
+							attributes.put(IMarker.CHAR_START, null);
+							attributes.put(IMarker.CHAR_END, null);
+							attributes.put(UNMATCHED_STEP_KEYWORD_ATTRIBUTE, null);
+							attributes.put(UNMATCHED_STEP_NAME_ATTRIBUTE, null);
+							attributes.put(UNMATCHED_STEP_PATH_ATTRIBUTE, null);
+						}
+						setAttributes(marker, attributes);
 
 					}
 				}
 				for (IMarker obsolete : existingMarker.values()) {
 					obsolete.delete();
 				}
+				MarkerIndex.update(resource, UNMATCHED_STEP, snippets.keySet());
 			}
 		});
 
@@ -299,42 +351,58 @@ public class MarkerFactory {
 //
 //	}
 
-	public void gherkinStepExampleUnmatch(final IDocument gherkinDocument, final IResource gherkinResource,
-			final int lineNumber) {
-
-		this.mark(gherkinResource, new IMarkerBuilder() {
+	/**
+	 * Marks the rows of scenario outline examples whose templated steps have no
+	 * matching glue code, markers of rows not contained in the given collection
+	 * are removed. Steps without placeholders are the same for all rows and are
+	 * reported once with {@link #missingSteps(IResource, GherkinEditorDocument, Map, String, boolean)}.
+	 * 
+	 * @param resource    the resource to mark
+	 * @param document    the document of the resource
+	 * @param rows        the lines of the examples rows with missing steps
+	 * @param sourceType  the type of the source that validated the rows
+	 * @param persistent  if the markers should be persisted
+	 */
+	public static void gherkinStepExampleUnmatch(IResource resource, IDocument document,
+			Collection<Integer> rows, String sourceType, boolean persistent) {
+		mark(resource, new IMarkerBuilder() {
 			@Override
 			public void build() throws CoreException {
-				IMarker marker = null;
-				int lineStartOffset = 0;
-
-				IRegion lineInfo = null;
-				String currentLine = null;
-				try {
-					lineInfo = gherkinDocument.getLineInformation(lineNumber - 1);
-					lineStartOffset = lineInfo.getOffset();
-					currentLine = gherkinDocument.get(lineStartOffset, lineInfo.getLength());
-				} catch (BadLocationException e) {
-					return;
+				Map<Object, IMarker> existingMarker = getExistingMarker(resource, SCENARIO_OUTLINE_EXAMPLE_UNMATCH);
+				for (int lineNumber : rows) {
+					String currentLine;
+					int lineStartOffset;
+					try {
+						IRegion lineInfo = document.getLineInformation(lineNumber - 1);
+						lineStartOffset = lineInfo.getOffset();
+						currentLine = document.get(lineStartOffset, lineInfo.getLength());
+					} catch (BadLocationException e) {
+						continue;
+					}
+					String currentLineTrim = currentLine.trim();
+					int statementStartOffset = lineStartOffset + currentLine.indexOf(currentLineTrim);
+					String sourceId = sourceType + "_" + lineNumber;
+					IMarker marker = existingMarker.remove(sourceId);
+					if (marker == null) {
+						marker = resource.createMarker(SCENARIO_OUTLINE_EXAMPLE_UNMATCH);
+					}
+					Map<String, Object> attributes = new HashMap<>();
+					attributes.put(IMarker.SOURCE_ID, sourceId);
+					attributes.put(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
+					attributes.put(IMarker.MESSAGE,
+							String.format("No compatible step definition with %s", currentLineTrim));
+					attributes.put(IMarker.LINE_NUMBER, lineNumber);
+					attributes.put(IMarker.CHAR_START, statementStartOffset);
+					attributes.put(IMarker.CHAR_END, statementStartOffset + currentLineTrim.length());
+					attributes.put(IMarker.TRANSIENT, persistent);
+					setAttributes(marker, attributes);
 				}
-
-				String currentLineTrim = currentLine.trim();
-				int statementStartOffset = lineStartOffset + currentLine.indexOf(currentLineTrim);
-
-				IRegion stepRegion = new Region(statementStartOffset, currentLineTrim.length());
-
-				marker = gherkinResource.createMarker(SCENARIO_OUTLINE_EXAMPLE_UNMATCH);
-				marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
-				marker.setAttribute(IMarker.MESSAGE,
-						String.format("No compatible step definition with %s", currentLineTrim));
-				marker.setAttribute(IMarker.LINE_NUMBER, lineNumber);
-				marker.setAttribute(IMarker.CHAR_START, stepRegion.getOffset());
-				marker.setAttribute(IMarker.CHAR_END, stepRegion.getOffset() + stepRegion.getLength());
-
-//				return marker;
+				for (IMarker obsolete : existingMarker.values()) {
+					obsolete.delete();
+				}
+				MarkerIndex.update(resource, SCENARIO_OUTLINE_EXAMPLE_UNMATCH, rows);
 			}
 		});
-
 	}
 
 //	public void featureFileIsNotInCucumberProject(IFile project) {
@@ -372,7 +440,31 @@ public class MarkerFactory {
 		}
 	}
 
+	/**
+	 * Only writes the attributes of the marker that actually changed, so
+	 * unchanged markers do not produce resource deltas, a <code>null</code> value
+	 * removes the attribute
+	 */
+	private static void setAttributes(IMarker marker, Map<String, Object> attributes) throws CoreException {
+		Map<String, Object> existing = marker.getAttributes();
+		List<String> names = new ArrayList<>();
+		List<Object> values = new ArrayList<>();
+		for (Entry<String, Object> entry : attributes.entrySet()) {
+			if (existing == null || !Objects.equals(existing.get(entry.getKey()), entry.getValue())) {
+				names.add(entry.getKey());
+				values.add(entry.getValue());
+			}
+		}
+		if (!names.isEmpty()) {
+			marker.setAttributes(names.toArray(String[]::new), values.toArray());
+		}
+	}
+
 	private static void mark(final IResource resource, final IMarkerBuilder markerBuilder) {
+		if (MarkerUpdate.add(resource, markerBuilder)) {
+			// will be applied together with all other changes of the current update
+			return;
+		}
 		try {
 			IWorkspaceRunnable runnable = new IWorkspaceRunnable() {
 				@Override
@@ -381,7 +473,8 @@ public class MarkerFactory {
 				}
 			};
 
-			resource.getWorkspace().run(runnable, null, IWorkspace.AVOID_UPDATE, null);
+			IWorkspace workspace = resource.getWorkspace();
+			workspace.run(runnable, workspace.getRuleFactory().markerRule(resource), IWorkspace.AVOID_UPDATE, null);
 
 		} catch (CoreException e) {
 			Activator.getDefault().getLog().log(new Status(IStatus.ERROR, Activator.PLUGIN_ID,
@@ -389,7 +482,7 @@ public class MarkerFactory {
 		}
 	}
 
-	private interface IMarkerBuilder {
+	interface IMarkerBuilder {
 		void build() throws CoreException;
 	}
 
@@ -401,11 +494,7 @@ public class MarkerFactory {
 	}
 
 	public static boolean hasMarker(IResource resource, String type, int lineNumber) throws CoreException {
-
-		return getExistingMarker(resource, type).values().stream()
-				.filter(marker -> marker.getAttribute(IMarker.LINE_NUMBER, -1) == lineNumber)
-				.findAny().isPresent();
-
+		return MarkerIndex.hasMarker(resource, type, lineNumber);
 	}
 
 	/**
@@ -0,0 +1,140 @@
+package io.cucumber.eclipse.editor.marker;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IMarkerDelta;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * In-memory index of the lines that carry a validation result of a given
+ * marker type, so checks like "is there an unmatched step on this line" can be
+ * answered without querying the workspace.
+ * <p>
+ * The index is maintained by the code that writes the markers (or the editor
+ * annotations standing in for them), it is only initialized from the existing
+ * markers the first time a resource is queried and whenever markers of the
+ * indexed types change. Lookups do not allocate any objects.
+ * </p>
+ *
+ * @author christoph
+ *
+ */
+public final class MarkerIndex {
+
+	private static final BitSet EMPTY = new BitSet(0);
+
+	private static final ConcurrentMap<IResource, ConcurrentMap<String, BitSet>> INDEX = new ConcurrentHashMap<>();
+
+	static {
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(event -> {
+			IResourceDelta delta = event.getDelta();
+			if (delta == null || INDEX.isEmpty()) {
+				return;
+			}
+			try {
+				delta.accept(child -> {
+					if (child.getKind() == IResourceDelta.REMOVED) {
+						INDEX.remove(child.getResource());
+					} else if ((child.getFlags() & IResourceDelta.MARKERS) != 0) {
+						ConcurrentMap<String, BitSet> types = INDEX.get(child.getResource());
+						if (types != null) {
+							// markers changed by someone else, read them again with the next query
+							for (IMarkerDelta markerDelta : child.getMarkerDeltas()) {
+								types.keySet().removeIf(markerDelta::isSubtypeOf);
+							}
+						}
+					}
+					return true;
+				});
+			} catch (CoreException e) {
+				// can't happen, the visitor does not throw
+			}
+		}, IResourceChangeEvent.POST_CHANGE);
+	}
+
+	private MarkerIndex() {
+	}
+
+	/**
+	 * Checks if the given line of the resource has a validation result of the
+	 * given type
+	 *
+	 * @param resource   the resource to check
+	 * @param type       the marker type
+	 * @param lineNumber the (1-based) line number
+	 * @return <code>true</code> if the line is marked
+	 * @throws CoreException if the markers of the resource can't be read
+	 */
+	public static boolean hasMarker(IResource resource, String type, int lineNumber) throws CoreException {
+		if (resource == null || lineNumber < 0) {
+			return false;
+		}
+		ConcurrentMap<String, BitSet> types = INDEX.get(resource);
+		BitSet lines = types == null ? null : types.get(type);
+		if (lines == null) {
+			lines = load(resource, type);
+		}
+		return lines.get(lineNumber);
+	}
+
+	/**
+	 * Replaces the marked lines of the given type for the resource
+	 *
+	 * @param resource the resource
+	 * @param type     the marker type
+	 * @param lines    the (1-based) line numbers that are marked now
+	 */
+	public static void update(IResource resource, String type, Collection<Integer> lines) {
+		if (resource == null) {
+			return;
+		}
+		BitSet bitSet;
+		if (lines.isEmpty()) {
+			bitSet = EMPTY;
+		} else {
+			bitSet = new BitSet();
+			for (Integer line : lines) {
+				if (line != null && line >= 0) {
+					bitSet.set(line);
+				}
+			}
+		}
+		// the sets are never modified once published so readers need no locking
+		INDEX.computeIfAbsent(resource, r -> new ConcurrentHashMap<>()).put(type, bitSet);
+	}
+
+	/**
+	 * Forgets everything known about the resource, the next query reads the
+	 * markers again
+	 *
+	 * @param resource the resource
+	 */
+	public static void invalidate(IResource resource) {
+		if (resource != null) {
+			INDEX.remove(resource);
+		}
+	}
+
+	private static BitSet load(IResource resource, String type) throws CoreException {
+		BitSet lines = new BitSet();
+		if (resource.exists()) {
+			for (IMarker marker : resource.findMarkers(type, true, IResource.DEPTH_ZERO)) {
+				int line = marker.getAttribute(IMarker.LINE_NUMBER, -1);
+				if (line >= 0) {
+					lines.set(line);
+				}
+			}
+		}
+		BitSet existing = INDEX.computeIfAbsent(resource, r -> new ConcurrentHashMap<>()).putIfAbsent(type, lines);
+		return existing == null ? lines : existing;
+	}
+
+}
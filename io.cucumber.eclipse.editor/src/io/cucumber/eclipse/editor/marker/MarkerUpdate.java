@@ -0,0 +1,164 @@
+package io.cucumber.eclipse.editor.marker;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceRuleFactory;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.MultiRule;
+
+import io.cucumber.eclipse.editor.Activator;
+import io.cucumber.eclipse.editor.marker.MarkerFactory.IMarkerBuilder;
+
+/**
+ * Collects marker changes issued through the {@link MarkerFactory} and applies
+ * them all at once in a single workspace operation, so listeners only receive
+ * one resource change event for a whole validation pass (or a batch of passes
+ * over many files). The changes reference the data of the validation, large
+ * batches should therefore be applied in chunks, see {@link #size()}.
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * MarkerUpdate update = new MarkerUpdate();
+ * try (MarkerUpdate.Binding binding = update.bind()) {
+ * 	MarkerFactory.missingSteps(...);
+ * 	MarkerFactory.syntaxErrorOnGherkin(...);
+ * }
+ * update.apply();
+ * </pre>
+ *
+ * An update can be bound by several threads at the same time, e.g. when
+ * multiple validation jobs contribute to the same batch.
+ * </p>
+ *
+ * @author christoph
+ *
+ */
+public final class MarkerUpdate {
+
+	private static final ThreadLocal<MarkerUpdate> CURRENT = new ThreadLocal<>();
+
+	private final Map<IResource, List<IMarkerBuilder>> builders = new LinkedHashMap<>();
+
+	/**
+	 * Binds this update to the current thread, all marker changes issued by this
+	 * thread are collected until the binding is closed
+	 *
+	 * @return the binding to close once all changes are issued
+	 */
+	public Binding bind() {
+		MarkerUpdate previous = CURRENT.get();
+		CURRENT.set(this);
+		return new Binding(previous);
+	}
+
+	/**
+	 * Applies all collected changes in one workspace operation and resets this
+	 * update
+	 */
+	public void apply() {
+		Map<IResource, List<IMarkerBuilder>> changes;
+		synchronized (builders) {
+			if (builders.isEmpty()) {
+				return;
+			}
+			changes = new LinkedHashMap<>(builders);
+			builders.clear();
+		}
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		IResourceRuleFactory ruleFactory = workspace.getRuleFactory();
+		ISchedulingRule rule = null;
+		for (IResource resource : changes.keySet()) {
+			rule = MultiRule.combine(rule, ruleFactory.markerRule(resource));
+		}
+		IWorkspaceRunnable runnable = monitor -> {
+			for (Entry<IResource, List<IMarkerBuilder>> entry : changes.entrySet()) {
+				for (IMarkerBuilder builder : entry.getValue()) {
+					try {
+						builder.build();
+					} catch (CoreException e) {
+						Activator.getDefault().getLog().log(new Status(IStatus.ERROR, Activator.PLUGIN_ID,
+								String.format("Failed to place marker %s", entry.getKey()), e));
+					}
+				}
+			}
+		};
+		try {
+			workspace.run(runnable, rule, IWorkspace.AVOID_UPDATE, null);
+		} catch (CoreException e) {
+			Activator.getDefault().getLog().log(new Status(IStatus.ERROR, Activator.PLUGIN_ID,
+					String.format("Failed to update markers of %s", changes.keySet()), e));
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if no changes are pending
+	 */
+	public boolean isEmpty() {
+		synchronized (builders) {
+			return builders.isEmpty();
+		}
+	}
+
+	/**
+	 * @return the number of resources with pending changes
+	 */
+	public int size() {
+		synchronized (builders) {
+			return builders.size();
+		}
+	}
+
+	/**
+	 * Adds the given builder to the update bound to the current thread
+	 *
+	 * @param resource the resource the builder changes markers of
+	 * @param builder  the builder
+	 * @return <code>false</code> if no update is bound and the change must be
+	 *         applied directly
+	 */
+	static boolean add(IResource resource, IMarkerBuilder builder) {
+		MarkerUpdate update = CURRENT.get();
+		if (update == null) {
+			return false;
+		}
+		synchronized (update.builders) {
+			update.builders.computeIfAbsent(resource, r -> new ArrayList<>()).add(builder);
+		}
+		return true;
+	}
+
+	/**
+	 * The binding of a {@link MarkerUpdate} to a thread
+	 */
+	public static final class Binding implements AutoCloseable {
+
+		private final MarkerUpdate previous;
+
+		private Binding(MarkerUpdate previous) {
+			this.previous = previous;
+		}
+
+		@Override
+		public void close() {
+			if (previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+		}
+
+	}
+
+}
@@ -37,6 +37,7 @@ import io.cucumber.eclipse.editor.properties.CucumberEditorProperties;
 public final record CucumberEditorPreferences(IPreferenceStore store, IEclipsePreferences node) {
 
 	static final String PREF_SHOW_RUN_SHORTCUT_PREFIX = Activator.PLUGIN_ID + ".show_run_shortcut_";
+	static final String PREF_EDITOR_ONLY_VALIDATION = Activator.PLUGIN_ID + ".editor_only_validation";
 
 	/**
 	 * Creates a preferences instance using workspace settings only.
@@ -88,6 +89,17 @@ public final record CucumberEditorPreferences(IPreferenceStore store, IEclipsePr
 		return store.getBoolean(PREF_SHOW_RUN_SHORTCUT_PREFIX + mode.name());
 	}
 
+	/**
+	 * Checks if validation results of modified documents should only be shown as
+	 * annotations in the editor, markers are then only updated when the document
+	 * is saved.
+	 * 
+	 * @return true if editor only validation is enabled
+	 */
+	public boolean isEditorOnlyValidation() {
+		return store.getBoolean(PREF_EDITOR_ONLY_VALIDATION);
+	}
+
 	/**
 	 * Sets the workspace preference for showing the launch shortcut for the given mode.
 	 * 
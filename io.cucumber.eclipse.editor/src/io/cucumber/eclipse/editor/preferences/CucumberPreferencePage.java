@@ -34,6 +34,8 @@ public class CucumberPreferencePage extends FieldEditorPreferencePage implements
 					getLabelForMode(mode), parent));
 
 		}
+		addField(new BooleanFieldEditor(CucumberEditorPreferences.PREF_EDITOR_ONLY_VALIDATION,
+				getString("Only annotate modified feature files in the editor, update markers on save"), parent));
 	}
 
 	public static String getLabelForMode(Mode mode) {
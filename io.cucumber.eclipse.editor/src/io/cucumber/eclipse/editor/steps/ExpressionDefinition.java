@@ -1,13 +1,17 @@
 package io.cucumber.eclipse.editor.steps;
 
+import java.lang.reflect.Type;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
-import io.cucumber.cucumberexpressions.CucumberExpressionParserSupport;
-import io.cucumber.cucumberexpressions.CucumberExpressionParserSupport.VariableReplacement;
+import io.cucumber.cucumberexpressions.Argument;
+import io.cucumber.cucumberexpressions.Expression;
 import io.cucumber.cucumberexpressions.ExpressionFactory;
 import io.cucumber.cucumberexpressions.ParameterTypeRegistry;
+import io.cucumber.cucumberexpressions.ParsedExpression;
 
 /**
  * A Stepexpresion contains the raw unparsed values for a step
@@ -19,8 +23,31 @@ public final class ExpressionDefinition {
 
 	private static final Map<Locale, ExpressionFactory> EXPRESSION_FACTORY_MAP = new ConcurrentHashMap<>();
 
+	/**
+	 * Marks expressions that can't be compiled
+	 */
+	private static final Expression INVALID_EXPRESSION = new Expression() {
+
+		@Override
+		public List<Argument<?>> match(String text, Type... typeHints) {
+			return null;
+		}
+
+		@Override
+		public Pattern getRegexp() {
+			return null;
+		}
+
+		@Override
+		public String getSource() {
+			return null;
+		}
+	};
+
 	private final String text;
 	private final String lang;
+	private volatile ParsedExpression parsedExpression;
+	private volatile CompiledExpression compiledExpression;
 
 	public ExpressionDefinition(String text) {
 		this(text, "");
@@ -55,22 +82,55 @@ public final class ExpressionDefinition {
 	 *         otherwise
 	 */
 	public boolean matchIgnoreTypes(String text, Locale locale) {
+		Expression expression = getMatchAllExpression(locale);
+		if (expression == INVALID_EXPRESSION) {
+			return false;
+		}
 		try {
-			return EXPRESSION_FACTORY_MAP
-					.computeIfAbsent(locale, l -> new ExpressionFactory(new ParameterTypeRegistry(l)))
-					.createExpression(
-							CucumberExpressionParserSupport.replaceVariables(getText(), VariableReplacement.MATCH_ALL))
-					.match(text) != null;
+			return expression.match(text) != null;
 		} catch (RuntimeException e) {
 			return false;
 		}
 	}
 
+	/**
+	 * @return the match-all form of this expression compiled for the given
+	 *         locale, computed once as long as the locale does not change
+	 */
+	Expression getMatchAllExpression(Locale locale) {
+		CompiledExpression compiled = compiledExpression;
+		if (compiled == null || !compiled.locale().equals(locale)) {
+			Expression expression;
+			try {
+				expression = EXPRESSION_FACTORY_MAP
+						.computeIfAbsent(locale, l -> new ExpressionFactory(new ParameterTypeRegistry(l)))
+						.createExpression(getParsedExpression().getMatchAllText());
+			} catch (RuntimeException e) {
+				// remember that the expression is invalid instead of failing again and again
+				expression = INVALID_EXPRESSION;
+			}
+			compiledExpression = compiled = new CompiledExpression(locale, expression);
+		}
+		return compiled.expression();
+	}
+
 	/**
 	 * @return the expression text but with all variables replaced
 	 */
 	public String getTextWithoutVariables() {
-		return CucumberExpressionParserSupport.replaceVariables(getText(), VariableReplacement.DELETE);
+		return getParsedExpression().getTextWithoutVariables();
+	}
+
+	/**
+	 * @return the parsed form of this expression, computed once per
+	 *         {@link ExpressionDefinition}
+	 */
+	public ParsedExpression getParsedExpression() {
+		ParsedExpression parsed = parsedExpression;
+		if (parsed == null) {
+			parsedExpression = parsed = new ParsedExpression(text);
+		}
+		return parsed;
 	}
 
 	@Override
@@ -109,4 +169,7 @@ public final class ExpressionDefinition {
 		return true;
 	}
 
+	private static record CompiledExpression(Locale locale, Expression expression) {
+	}
+
 }
@@ -0,0 +1,27 @@
+package io.cucumber.eclipse.editor.steps;
+
+import java.util.Collection;
+
+import org.eclipse.core.resources.IProject;
+
+/**
+ * A listener that is notified when an {@link IStepDefinitionsProvider} finds
+ * different step definitions for a project
+ * 
+ * @author christoph
+ *
+ */
+public interface IStepDefinitionsListener {
+
+	/**
+	 * Handles a change of the step definitions of a project, the listener might
+	 * be called from any thread
+	 * 
+	 * @param project     the project the step definitions where found for
+	 * @param definitions all step definitions the provider now knows for the
+	 *                    project, they replace whatever was known before
+	 * @param deltas      the changes per resource, never empty
+	 */
+	void stepDefinitionsChanged(IProject project, Collection<StepDefinition> definitions,
+			Collection<StepDefinitionsDelta> deltas);
+}
@@ -1,6 +1,7 @@
 package io.cucumber.eclipse.editor.steps;
 
 import java.util.Collection;
+import java.util.Collections;
 
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
@@ -37,4 +38,44 @@ public interface IStepDefinitionsProvider {
 	 */
 	boolean support(IResource resource) throws CoreException;
 
+	/**
+	 * Returns the step definitions that are known without any expensive
+	 * computation, e.g. the ones persisted from a previous session. These are
+	 * used to answer requests immediately while
+	 * {@link #findStepDefinitions(ITextViewer, int, IResource, IProgressMonitor)}
+	 * is still running.
+	 * 
+	 * @param resource the resource to get the step definitions for
+	 * @return the known step definitions, never <code>null</code>
+	 */
+	default Collection<StepDefinition> getKnownStepDefinitions(IResource resource) {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Registers a listener that is notified whenever this provider finds
+	 * different step definitions for a project. Consumers that are notified do
+	 * not need to call
+	 * {@link #findStepDefinitions(ITextViewer, int, IResource, IProgressMonitor)}
+	 * again to stay up to date.
+	 * 
+	 * @param listener the listener to add
+	 * @return <code>true</code> if the listener will be notified,
+	 *         <code>false</code> if this provider does not push changes and must
+	 *         be asked again
+	 * @see StepDefinitionsNotifier
+	 */
+	default boolean addStepDefinitionsListener(IStepDefinitionsListener listener) {
+		return false;
+	}
+
+	/**
+	 * Removes a listener added with
+	 * {@link #addStepDefinitionsListener(IStepDefinitionsListener)}
+	 * 
+	 * @param listener the listener to remove
+	 */
+	default void removeStepDefinitionsListener(IStepDefinitionsListener listener) {
+	}
+
 }
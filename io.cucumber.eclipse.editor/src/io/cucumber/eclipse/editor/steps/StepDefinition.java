@@ -2,6 +2,8 @@ package io.cucumber.eclipse.editor.steps;
 
 import java.util.Comparator;
 import java.util.Objects;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
 
 import org.eclipse.core.resources.IResource;
 
@@ -19,19 +21,24 @@ public final class StepDefinition {
 	public static final String NO_PACKAGE_NAME = null;
 	public static final String NO_LABEL = null;
 	public static final IResource NO_SOURCE = null;
+	public static final String NO_LIBRARY = null;
 	public static final Comparator<? super StepDefinition> EXPRESSION_TEXT_ORDER = (s1, s2) -> s1.getExpression().getText()
 			.compareToIgnoreCase(s2.getExpression().getText());
 
 	private final IResource source;
-	private final int lineNumber;
+	private int lineNumber;
 	private final ExpressionDefinition expression;
 	private final String label;
 
 	private final String sourceName;
 	private final String packageName;
 	private final String id;
+	private final String library;
 	private StepParameter[] parameters;
 	private String description;
+	private volatile IntSupplier lineNumberSupplier;
+	private volatile Supplier<StepParameter[]> parametersSupplier;
+	private volatile Supplier<String> descriptionSupplier;
 
 	/**
 	 * Creates a new {@link StepDefinition}
@@ -52,6 +59,11 @@ public final class StepDefinition {
 	 */
 	public StepDefinition(String id, String label, ExpressionDefinition expression, IResource source, int lineNumber,
 			String sourceName, String packageName, StepParameter[] parameters, String description) {
+		this(id, label, expression, source, lineNumber, sourceName, packageName, NO_LIBRARY, parameters, description);
+	}
+
+	private StepDefinition(String id, String label, ExpressionDefinition expression, IResource source, int lineNumber,
+			String sourceName, String packageName, String library, StepParameter[] parameters, String description) {
 		this.id = id;
 		this.label = label;
 		this.expression = expression;
@@ -59,11 +71,69 @@ public final class StepDefinition {
 		this.lineNumber = lineNumber;
 		this.sourceName = sourceName;
 		this.packageName = packageName;
+		this.library = library;
 		this.description = description;
 		this.parameters = Objects.requireNonNullElseGet(parameters, () -> new StepParameter[0]);
 	}
 
+	/**
+	 * Creates a new {@link StepDefinition} where the line number, parameters and
+	 * description are only computed when they are requested for the first time
+	 * 
+	 * @param id          the persistent id of this step
+	 * @param label       a userfriendly label
+	 * @param expression  the expresion that this step contains
+	 * @param source      the source where this step is created from
+	 * @param lineNumber  supplies the line number, might return
+	 *                    {@link #NO_LINE_NUMBER}
+	 * @param sourceName  the name of the source
+	 * @param packageName the packagename of the source
+	 * @param parameters  supplies the parameters of the corresponding method
+	 * @param description supplies the description
+	 */
+	public StepDefinition(String id, String label, ExpressionDefinition expression, IResource source,
+			IntSupplier lineNumber, String sourceName, String packageName, Supplier<StepParameter[]> parameters,
+			Supplier<String> description) {
+		this(id, label, expression, source, lineNumber, sourceName, packageName, NO_LIBRARY, parameters, description);
+	}
+
+	/**
+	 * Creates a new {@link StepDefinition} where the line number, parameters and
+	 * description are only computed when they are requested for the first time
+	 * 
+	 * @param id          the persistent id of this step
+	 * @param label       a userfriendly label
+	 * @param expression  the expresion that this step contains
+	 * @param source      the source where this step is created from
+	 * @param lineNumber  supplies the line number, might return
+	 *                    {@link #NO_LINE_NUMBER}
+	 * @param sourceName  the name of the source
+	 * @param packageName the packagename of the source
+	 * @param library     the location of the library (e.g. the path of a jar)
+	 *                    that declares the step if it is not declared in the
+	 *                    workspace, or {@link #NO_LIBRARY}
+	 * @param parameters  supplies the parameters of the corresponding method
+	 * @param description supplies the description
+	 */
+	public StepDefinition(String id, String label, ExpressionDefinition expression, IResource source,
+			IntSupplier lineNumber, String sourceName, String packageName, String library,
+			Supplier<StepParameter[]> parameters, Supplier<String> description) {
+		this(id, label, expression, source, NO_LINE_NUMBER, sourceName, packageName, library, null, null);
+		this.lineNumberSupplier = lineNumber;
+		this.parametersSupplier = parameters;
+		this.descriptionSupplier = description;
+	}
+
 	public StepParameter[] getParameters() {
+		if (parametersSupplier != null) {
+			synchronized (this) {
+				Supplier<StepParameter[]> supplier = parametersSupplier;
+				if (supplier != null) {
+					parameters = Objects.requireNonNullElseGet(supplier.get(), () -> new StepParameter[0]);
+					parametersSupplier = null;
+				}
+			}
+		}
 		return parameters;
 	}
 
@@ -72,6 +142,15 @@ public final class StepDefinition {
 	}
 
 	public int getLineNumber() {
+		if (lineNumberSupplier != null) {
+			synchronized (this) {
+				IntSupplier supplier = lineNumberSupplier;
+				if (supplier != null) {
+					lineNumber = supplier.getAsInt();
+					lineNumberSupplier = null;
+				}
+			}
+		}
 		return lineNumber;
 	}
 
@@ -86,7 +165,24 @@ public final class StepDefinition {
 		return packageName;
 	}
 
+	/**
+	 * @return the location of the library that declares this step or
+	 *         <code>null</code> if it is not known
+	 */
+	public String getLibrary() {
+		return library;
+	}
+
 	public String getDescription() {
+		if (descriptionSupplier != null) {
+			synchronized (this) {
+				Supplier<String> supplier = descriptionSupplier;
+				if (supplier != null) {
+					description = supplier.get();
+					descriptionSupplier = null;
+				}
+			}
+		}
 		return description;
 	}
 
@@ -100,17 +196,33 @@ public final class StepDefinition {
 
 	public String getLabel() {
 		if (label == null) {
-			return getSourceName() + ":" + this.lineNumber;
+			return getSourceName() + ":" + getLineNumber();
 		}
 		return label;
 	}
 
+	/**
+	 * @return the label as given on creation, <code>null</code> if it is derived
+	 *         from the source
+	 */
+	String getDeclaredLabel() {
+		return label;
+	}
+
+	/**
+	 * @return the source name as given on creation, <code>null</code> if it is
+	 *         derived from the source
+	 */
+	String getDeclaredSourceName() {
+		return sourceName;
+	}
+
 	@Override
 	public String toString() {
 
 		// For Steps from Current-Project
-		if (lineNumber != 0)
-			return "Step [text=" + getExpression() + ", source=" + source + ", lineNumber=" + lineNumber + "]";
+		if (getLineNumber() != 0)
+			return "Step [text=" + getExpression() + ", source=" + source + ", lineNumber=" + getLineNumber() + "]";
 
 		// For Steps From External-ClassPath JAR
 		else
@@ -128,7 +240,7 @@ public final class StepDefinition {
 		result = prime * result + ((expression == null) ? 0 : expression.hashCode());
 		result = prime * result + ((id == null) ? 0 : id.hashCode());
 		result = prime * result + ((label == null) ? 0 : label.hashCode());
-		result = prime * result + lineNumber;
+		result = prime * result + getLineNumber();
 		result = prime * result + ((packageName == null) ? 0 : packageName.hashCode());
 		result = prime * result + ((source == null) ? 0 : source.hashCode());
 		result = prime * result + ((sourceName == null) ? 0 : sourceName.hashCode());
@@ -159,7 +271,7 @@ public final class StepDefinition {
 				return false;
 		} else if (!label.equals(other.label))
 			return false;
-		if (lineNumber != other.lineNumber)
+		if (getLineNumber() != other.getLineNumber())
 			return false;
 		if (packageName == null) {
 			if (other.packageName != null)
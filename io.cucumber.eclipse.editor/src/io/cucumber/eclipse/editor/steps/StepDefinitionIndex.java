@@ -0,0 +1,229 @@
+package io.cucumber.eclipse.editor.steps;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import io.cucumber.eclipse.editor.Activator;
+import io.cucumber.eclipse.editor.CucumberServiceRegistry;
+
+/**
+ * Workspace wide index of the step definitions found by all
+ * {@link IStepDefinitionsProvider}s.
+ * <p>
+ * Step definitions are stored per glue unit, a unit is the resource that
+ * defines the steps or, for steps from outside the workspace (e.g. a glue
+ * library on the classpath), the library and package they are declared in.
+ * Projects only reference the units they can see, so a library used by many
+ * projects is held only once and an update from one project is visible to all
+ * others. Steps of an unknown library are private to the project.
+ * </p>
+ * <p>
+ * The index is updated incrementally with the results of the providers, only
+ * units that actually changed are replaced. Projects that are not indexed yet
+ * are initialized from
+ * {@link IStepDefinitionsProvider#getKnownStepDefinitions(IResource)} on first
+ * access. Queries do not lock.
+ * </p>
+ *
+ * @author christoph
+ *
+ */
+public final class StepDefinitionIndex {
+
+	public static final StepDefinitionIndex INSTANCE = new StepDefinitionIndex();
+
+	private final ConcurrentMap<Object, Set<StepDefinition>> units = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<IProject, Set<Object>> projectUnits = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<IProject, Set<StepDefinition>> visible = new ConcurrentHashMap<>();
+
+	/**
+	 * incremented on each modification, guards against publishing outdated views
+	 */
+	private volatile long generation;
+
+	private StepDefinitionIndex() {
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(event -> {
+			if (event.getResource() instanceof IProject) {
+				remove((IProject) event.getResource());
+			}
+		}, IResourceChangeEvent.PRE_CLOSE | IResourceChangeEvent.PRE_DELETE);
+	}
+
+	/**
+	 * Replaces the step definitions visible from the given project
+	 *
+	 * @param project     the project
+	 * @param definitions all step definitions found for the project by all
+	 *                    providers
+	 */
+	public void update(IProject project, Collection<StepDefinition> definitions) {
+		Map<Object, Set<StepDefinition>> byUnit = new HashMap<>();
+		for (StepDefinition definition : definitions) {
+			byUnit.computeIfAbsent(unitOf(project, definition), u -> new HashSet<>()).add(definition);
+		}
+		synchronized (this) {
+			Set<Object> changed = new HashSet<>();
+			for (Entry<Object, Set<StepDefinition>> entry : byUnit.entrySet()) {
+				Object unit = entry.getKey();
+				if (!entry.getValue().equals(units.get(unit))) {
+					units.put(unit, Set.copyOf(entry.getValue()));
+					changed.add(unit);
+				}
+			}
+			Set<Object> previous = projectUnits.put(project, Set.copyOf(byUnit.keySet()));
+			if (previous != null) {
+				for (Object unit : previous) {
+					if (!byUnit.containsKey(unit)) {
+						changed.add(unit);
+						release(unit);
+					}
+				}
+			}
+			visible.remove(project);
+			invalidate(changed);
+			generation++;
+		}
+	}
+
+	/**
+	 * Removes the given project from the index
+	 *
+	 * @param project the project
+	 */
+	public void remove(IProject project) {
+		synchronized (this) {
+			Set<Object> previous = projectUnits.remove(project);
+			visible.remove(project);
+			if (previous != null) {
+				previous.forEach(this::release);
+				invalidate(previous);
+			}
+			generation++;
+		}
+	}
+
+	/**
+	 * @param project the project
+	 * @return all step definitions visible from the given project, never
+	 *         <code>null</code>
+	 */
+	public Set<StepDefinition> getStepDefinitions(IProject project) {
+		Set<StepDefinition> result = visible.get(project);
+		if (result != null) {
+			return result;
+		}
+		if (!projectUnits.containsKey(project)) {
+			initialize(project);
+		}
+		long expected = generation;
+		Set<Object> unitsOfProject = projectUnits.getOrDefault(project, Set.of());
+		Set<StepDefinition> union = new HashSet<>();
+		for (Object unit : unitsOfProject) {
+			union.addAll(units.getOrDefault(unit, Set.of()));
+		}
+		result = Collections.unmodifiableSet(union);
+		synchronized (this) {
+			// only publish if nothing was changed while computing
+			if (generation == expected) {
+				visible.putIfAbsent(project, result);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the step definitions that match a step text
+	 *
+	 * @param project the project the step is used in or <code>null</code> to
+	 *                search all step definitions of the workspace
+	 * @param text    the text of the step (without keyword)
+	 * @param locale  the locale of the document the step is used in
+	 * @return the matching step definitions, never <code>null</code>
+	 */
+	public List<StepDefinition> findStepDefinitions(IProject project, String text, Locale locale) {
+		Collection<StepDefinition> candidates;
+		if (project == null) {
+			candidates = units.values().stream().flatMap(Set::stream).collect(Collectors.toSet());
+		} else {
+			candidates = getStepDefinitions(project);
+		}
+		return candidates.stream().filter(definition -> definition.getExpression().matchIgnoreTypes(text, locale))
+				.collect(Collectors.toList());
+	}
+
+	private void initialize(IProject project) {
+		Set<StepDefinition> known = new HashSet<>();
+		for (IStepDefinitionsProvider provider : CucumberServiceRegistry.getStepDefinitionsProvider(project)) {
+			try {
+				known.addAll(provider.getKnownStepDefinitions(project));
+			} catch (RuntimeException e) {
+				Activator.getDefault().getLog().error("Internal error while reading known step definitions", e);
+			}
+		}
+		synchronized (this) {
+			// a real result might have arrived in the meantime
+			if (!projectUnits.containsKey(project)) {
+				update(project, known);
+			}
+		}
+	}
+
+	private void release(Object unit) {
+		for (Set<Object> unitsOfProject : projectUnits.values()) {
+			if (unitsOfProject.contains(unit)) {
+				return;
+			}
+		}
+		units.remove(unit);
+	}
+
+	private void invalidate(Set<Object> changed) {
+		if (changed.isEmpty()) {
+			return;
+		}
+		for (Entry<IProject, Set<Object>> entry : projectUnits.entrySet()) {
+			if (!Collections.disjoint(entry.getValue(), changed)) {
+				visible.remove(entry.getKey());
+			}
+		}
+	}
+
+	private static Object unitOf(IProject project, StepDefinition definition) {
+		IResource source = definition.getSource();
+		if (source != null) {
+			return source;
+		}
+		String library = definition.getLibrary();
+		String packageName = definition.getPackageName();
+		if (library == null || packageName == null || packageName.isEmpty()) {
+			// nothing identifies the library, keep it private to the project
+			return project;
+		}
+		return new LibraryPackage(library, packageName);
+	}
+
+	/**
+	 * Identity of step definitions declared outside the workspace, the same
+	 * package might be contained in different libraries (or versions of one)
+	 */
+	private record LibraryPackage(String library, String name) {
+	}
+
+}
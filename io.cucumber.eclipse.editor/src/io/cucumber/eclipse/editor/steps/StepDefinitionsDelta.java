@@ -0,0 +1,28 @@
+package io.cucumber.eclipse.editor.steps;
+
+import java.util.Set;
+
+import org.eclipse.core.resources.IResource;
+
+/**
+ * Describes how the step definitions of a single resource have changed
+ * 
+ * @param resource the resource that defines the steps, this is the project for
+ *                 steps without a source
+ * @param kind     the kind of change
+ * @param previous the step definitions before the change, empty if the
+ *                 resource was added
+ * @param current  the step definitions after the change, empty if the resource
+ *                 was removed
+ * 
+ * @author christoph
+ *
+ */
+public record StepDefinitionsDelta(IResource resource, Kind kind, Set<StepDefinition> previous,
+		Set<StepDefinition> current) {
+
+	public enum Kind {
+		ADDED, REMOVED, CHANGED;
+	}
+
+}
@@ -0,0 +1,290 @@
+package io.cucumber.eclipse.editor.steps;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * Binary format of the persisted {@link StepDefinitionsRepository}.
+ * <p>
+ * The file starts with a magic number and a version followed by a table of all
+ * distinct strings, an index of the resources and finally one fixed size
+ * record per step definition where all strings are references into the string
+ * table. This makes the file compact as paths, package and source names are
+ * repeated a lot.
+ * </p>
+ * <p>
+ * Files with a different magic number or version are simply ignored, the
+ * repository is written again as soon as the step definitions are known.
+ * </p>
+ * 
+ * @author christoph
+ *
+ */
+final class StepDefinitionsFormat {
+
+	private static final int MAGIC = 0x43554B45; // CUKE
+
+	private static final int VERSION = 2;
+
+	private static final int NULL = -1;
+
+	/**
+	 * id, label, package name, source name, line number, expression language,
+	 * expression text, source path, library
+	 */
+	private static final int RECORD_SIZE = 9 * Integer.BYTES;
+
+	private StepDefinitionsFormat() {
+	}
+
+	/**
+	 * Encodes the given step definitions, the data is streamed in two passes over
+	 * the step definitions (one to collect the strings, one to write the records)
+	 * so nothing but the string table is buffered
+	 * 
+	 * @param content the step definitions by resource, must not change while
+	 *                being written
+	 * @param stream  the stream to write to, it is not closed
+	 * @throws IOException if writing fails
+	 */
+	static void write(Map<IResource, Set<StepDefinition>> content, OutputStream stream) throws IOException {
+		Map<String, Integer> strings = new HashMap<>();
+		List<String> table = new ArrayList<>();
+		int stepCount = 0;
+		for (Entry<IResource, Set<StepDefinition>> entry : content.entrySet()) {
+			add(path(entry.getKey()), strings, table);
+			for (StepDefinition step : entry.getValue()) {
+				add(step.getId(), strings, table);
+				add(step.getDeclaredLabel(), strings, table);
+				add(step.getPackageName(), strings, table);
+				add(step.getDeclaredSourceName(), strings, table);
+				add(step.getExpression().getLang(), strings, table);
+				add(step.getExpression().getText(), strings, table);
+				add(path(step.getSource()), strings, table);
+				add(step.getLibrary(), strings, table);
+				stepCount++;
+			}
+		}
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(table.size());
+		for (String string : table) {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+		out.writeInt(content.size());
+		int first = 0;
+		for (Entry<IResource, Set<StepDefinition>> entry : content.entrySet()) {
+			int count = entry.getValue().size();
+			out.writeInt(ref(path(entry.getKey()), strings));
+			out.writeInt(first);
+			out.writeInt(count);
+			first += count;
+		}
+		if (first != stepCount) {
+			throw new IOException("Step definitions changed while being written");
+		}
+		out.writeInt(stepCount);
+		for (Set<StepDefinition> steps : content.values()) {
+			for (StepDefinition step : steps) {
+				ExpressionDefinition expression = step.getExpression();
+				out.writeInt(ref(step.getId(), strings));
+				out.writeInt(ref(step.getDeclaredLabel(), strings));
+				out.writeInt(ref(step.getPackageName(), strings));
+				out.writeInt(ref(step.getDeclaredSourceName(), strings));
+				out.writeInt(step.getLineNumber());
+				out.writeInt(ref(expression.getLang(), strings));
+				out.writeInt(ref(expression.getText(), strings));
+				out.writeInt(ref(path(step.getSource()), strings));
+				out.writeInt(ref(step.getLibrary(), strings));
+			}
+		}
+		out.flush();
+	}
+
+	private static String path(IResource resource) {
+		return resource == null ? null : resource.getFullPath().toPortableString();
+	}
+
+	private static void add(String string, Map<String, Integer> strings, List<String> table) {
+		if (string != null) {
+			strings.computeIfAbsent(string, s -> {
+				table.add(s);
+				return table.size() - 1;
+			});
+		}
+	}
+
+	private static int ref(String string, Map<String, Integer> strings) throws IOException {
+		if (string == null) {
+			return NULL;
+		}
+		Integer ref = strings.get(string);
+		if (ref == null) {
+			throw new IOException("Step definitions changed while being written");
+		}
+		return ref;
+	}
+
+	/**
+	 * Decodes the given data, records that reference invalid data are skipped
+	 * 
+	 * @param data the encoded data
+	 * @return the step definitions by resource or <code>null</code> if the data
+	 *         has an unknown format
+	 * @throws IOException if the data is corrupted
+	 */
+	static Map<IResource, Set<StepDefinition>> read(byte[] data) throws IOException {
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(data);
+			if (buffer.remaining() < 2 * Integer.BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				return null;
+			}
+			Reader reader = new Reader(data, buffer);
+			Map<IResource, Set<StepDefinition>> content = new HashMap<>();
+			int resources = buffer.getInt();
+			if (resources < 0 || resources > buffer.remaining() / (3 * Integer.BYTES)) {
+				throw new IOException("Step definitions index is corrupted");
+			}
+			int indexStart = buffer.position();
+			buffer.position(indexStart + resources * 3 * Integer.BYTES);
+			int stepCount = buffer.getInt();
+			reader.recordStart = buffer.position();
+			if (data.length < reader.recordStart + (long) stepCount * RECORD_SIZE) {
+				throw new IOException("Step definitions data is truncated");
+			}
+			buffer.position(indexStart);
+			for (int i = 0; i < resources; i++) {
+				IResource resource = reader.resource(buffer.getInt());
+				int first = buffer.getInt();
+				int count = buffer.getInt();
+				if (resource != null && count > 0 && first >= 0 && first + count <= stepCount) {
+					Set<StepDefinition> steps = reader.decode(first, count);
+					if (!steps.isEmpty()) {
+						content.put(resource, Collections.unmodifiableSet(steps));
+					}
+				}
+			}
+			return content;
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+			throw new IOException("Step definitions data is corrupted", e);
+		}
+	}
+
+	private static final class Reader {
+
+		private final byte[] data;
+		private final int[] stringOffsets;
+		private final String[] strings;
+		private int recordStart;
+
+		Reader(byte[] data, ByteBuffer buffer) {
+			this.data = data;
+			int count = buffer.getInt();
+			if (count < 0 || count > buffer.remaining() / Integer.BYTES) {
+				throw new IllegalArgumentException("invalid string count " + count);
+			}
+			stringOffsets = new int[count];
+			strings = new String[count];
+			for (int i = 0; i < count; i++) {
+				stringOffsets[i] = buffer.position();
+				int length = buffer.getInt();
+				if (length < 0) {
+					throw new IllegalArgumentException("invalid string length " + length);
+				}
+				// fails if the string exceeds the data
+				buffer.position(buffer.position() + length);
+			}
+		}
+
+		String string(int ref) {
+			if (ref == NULL) {
+				return null;
+			}
+			String string = strings[ref];
+			if (string == null) {
+				int offset = stringOffsets[ref];
+				int length = ByteBuffer.wrap(data, offset, Integer.BYTES).getInt();
+				string = new String(data, offset + Integer.BYTES, length, StandardCharsets.UTF_8);
+				strings[ref] = string;
+			}
+			return string;
+		}
+
+		IResource resource(int ref) {
+			String path = string(ref);
+			if (path == null) {
+				return null;
+			}
+			// only create handles here, checking existence would touch the workspace tree
+			// for each entry
+			IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+			IPath fullPath = IPath.fromPortableString(path);
+			if (fullPath.segmentCount() == 0) {
+				return null;
+			}
+			if (fullPath.segmentCount() == 1) {
+				return root.getProject(fullPath.segment(0));
+			}
+			return root.getFile(fullPath);
+		}
+
+		/**
+		 * @return the decoded step definitions, records that reference invalid data
+		 *         are skipped
+		 */
+		Set<StepDefinition> decode(int first, int count) {
+			Set<StepDefinition> steps = new HashSet<>();
+			ByteBuffer buffer = ByteBuffer.wrap(data);
+			buffer.position(recordStart + first * RECORD_SIZE);
+			for (int i = 0; i < count; i++) {
+				int position = buffer.position();
+				try {
+					String id = string(buffer.getInt());
+					String label = string(buffer.getInt());
+					String packageName = string(buffer.getInt());
+					String sourceName = string(buffer.getInt());
+					int lineNumber = buffer.getInt();
+					String lang = string(buffer.getInt());
+					String text = string(buffer.getInt());
+					IResource source = resource(buffer.getInt());
+					String library = string(buffer.getInt());
+					if (text == null) {
+						continue;
+					}
+					@SuppressWarnings("deprecation")
+					ExpressionDefinition expression = new ExpressionDefinition(text, lang);
+					steps.add(new StepDefinition(id, label, expression, source, () -> lineNumber, sourceName,
+							packageName, library, () -> new StepParameter[0], () -> null));
+				} catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+					// the index was valid, but the record is not, the steps are written again
+					// as soon as they are known
+					buffer.position(position + RECORD_SIZE);
+				}
+			}
+			return steps;
+		}
+
+	}
+
+}
@@ -0,0 +1,119 @@
+package io.cucumber.eclipse.editor.steps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+
+import io.cucumber.eclipse.editor.Activator;
+import io.cucumber.eclipse.editor.steps.StepDefinitionsDelta.Kind;
+
+/**
+ * Helper for {@link IStepDefinitionsProvider}s that push changes to
+ * {@link IStepDefinitionsListener}s: remembers the last step definitions of
+ * each project and sends them together with the differences per resource to
+ * all listeners.
+ * Notifications are delivered in the order of the updates.
+ * 
+ * @author christoph
+ *
+ */
+public final class StepDefinitionsNotifier {
+
+	private final List<IStepDefinitionsListener> listeners = new CopyOnWriteArrayList<>();
+
+	private final Map<IProject, Map<IResource, Set<StepDefinition>>> stepsByProject = new HashMap<>();
+
+	/**
+	 * @param listener the listener to add
+	 * @return <code>true</code> as the listener will be notified
+	 */
+	public boolean addListener(IStepDefinitionsListener listener) {
+		listeners.addIfAbsent(listener);
+		return true;
+	}
+
+	/**
+	 * @param listener the listener to remove
+	 */
+	public void removeListener(IStepDefinitionsListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * @return <code>true</code> if there is at least one listener, providers might
+	 *         skip computing updates otherwise
+	 */
+	public boolean hasListeners() {
+		return !listeners.isEmpty();
+	}
+
+	/**
+	 * Forgets the step definitions of a project, e.g. because it was closed, the
+	 * next update reports all of them as added
+	 * 
+	 * @param project the project
+	 */
+	public synchronized void forget(IProject project) {
+		stepsByProject.remove(project);
+	}
+
+	/**
+	 * Replaces the step definitions of a project and notifies all listeners about
+	 * the resources that have changed
+	 * 
+	 * @param project     the project
+	 * @param definitions all step definitions of the project
+	 */
+	public synchronized void update(IProject project, Collection<StepDefinition> definitions) {
+		Map<IResource, Set<StepDefinition>> current = new HashMap<>();
+		for (StepDefinition definition : definitions) {
+			IResource source = definition.getSource();
+			current.computeIfAbsent(source == null ? project : source, r -> new HashSet<>()).add(definition);
+		}
+		Map<IResource, Set<StepDefinition>> previous = stepsByProject.put(project, current);
+		if (previous == null) {
+			previous = Map.of();
+		}
+		List<StepDefinitionsDelta> deltas = new ArrayList<>();
+		for (Entry<IResource, Set<StepDefinition>> entry : current.entrySet()) {
+			Set<StepDefinition> old = previous.get(entry.getKey());
+			if (old == null) {
+				deltas.add(new StepDefinitionsDelta(entry.getKey(), Kind.ADDED, Set.of(),
+						Set.copyOf(entry.getValue())));
+			} else if (!old.equals(entry.getValue())) {
+				deltas.add(new StepDefinitionsDelta(entry.getKey(), Kind.CHANGED, Set.copyOf(old),
+						Set.copyOf(entry.getValue())));
+			}
+		}
+		for (Entry<IResource, Set<StepDefinition>> entry : previous.entrySet()) {
+			if (!current.containsKey(entry.getKey())) {
+				deltas.add(new StepDefinitionsDelta(entry.getKey(), Kind.REMOVED, Set.copyOf(entry.getValue()),
+						Set.of()));
+			}
+		}
+		if (deltas.isEmpty()) {
+			return;
+		}
+		List<StepDefinitionsDelta> changes = Collections.unmodifiableList(deltas);
+		List<StepDefinition> all = List.copyOf(definitions);
+		for (IStepDefinitionsListener listener : listeners) {
+			try {
+				listener.stepDefinitionsChanged(project, all, changes);
+			} catch (RuntimeException e) {
+				Activator.getDefault().getLog().error(
+						"Listener throws RuntimeException while handling step definitions of " + project.getName(), e);
+			}
+		}
+	}
+
+}
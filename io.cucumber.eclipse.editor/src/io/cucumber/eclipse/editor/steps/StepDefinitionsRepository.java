@@ -1,21 +1,16 @@
 package io.cucumber.eclipse.editor.steps;
 
-import java.io.Externalizable;
 import java.io.IOException;
-import java.io.ObjectInput;
-import java.io.ObjectOutput;
+import java.io.OutputStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
 
-import io.cucumber.eclipse.editor.ResourceHelper;
-import io.cucumber.eclipse.editor.StorageHelper;
-
 /**
  * Storage class for step definitions.
  * 
@@ -27,84 +22,211 @@ import io.cucumber.eclipse.editor.StorageHelper;
  * have to compute step definitions for all projects to have a real view of step
  * definitions.
  * 
+ * The content is held in an immutable {@link Snapshot} that is replaced as a
+ * whole on each modification (copy-on-write), readers therefore never need to
+ * lock and always see a consistent state while writers are serialized.
  * 
  * @author qvdk
  *
  */
-public class StepDefinitionsRepository implements Externalizable {
-
-	private static final long serialVersionUID = -5426643465030832989L;
-	private final Map<IResource, Set<StepDefinition>> stepDefinitionsByResourceName = new HashMap<IResource, Set<StepDefinition>>();
-	public synchronized void add(IResource stepDefinitionsFile, Set<StepDefinition> steps) {
-		if (steps.isEmpty()) {
-			this.stepDefinitionsByResourceName.remove(stepDefinitionsFile);
-		} else {
-			this.stepDefinitionsByResourceName.put(stepDefinitionsFile, steps);
+public class StepDefinitionsRepository {
+
+	private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+	/**
+	 * Replaces the step definitions of a single resource
+	 * 
+	 * @param stepDefinitionsFile the resource that defines the steps
+	 * @param steps               the steps, an empty set removes the resource
+	 */
+	public void add(IResource stepDefinitionsFile, Set<StepDefinition> steps) {
+		Set<StepDefinition> copy = Set.copyOf(steps);
+		synchronized (this) {
+			Map<IResource, Set<StepDefinition>> content = new HashMap<>(snapshot.content);
+			if (copy.isEmpty()) {
+				if (content.remove(stepDefinitionsFile) == null) {
+					return;
+				}
+			} else {
+				content.put(stepDefinitionsFile, copy);
+			}
+			snapshot = new Snapshot(content);
 		}
 	}
 
-	public Set<IFile> getAllStepDefinitionsFiles() {
-		Set<IFile> fromFilesOnly = new HashSet<IFile>();
-		for (IResource resource : this.stepDefinitionsByResourceName.keySet()) {
-			if (resource instanceof IFile) {
-				fromFilesOnly.add((IFile) resource);
+	/**
+	 * Replaces the whole content of this repository in one step
+	 * 
+	 * @param stepsByResource the steps keyed by the resource that defines them
+	 */
+	public void replace(Map<IResource, ? extends Set<StepDefinition>> stepsByResource) {
+		Map<IResource, Set<StepDefinition>> content = new HashMap<>();
+		stepsByResource.forEach((resource, steps) -> {
+			if (!steps.isEmpty()) {
+				content.put(resource, Set.copyOf(steps));
+			}
+		});
+		publish(content);
+	}
+
+	/**
+	 * Replaces the whole content of this repository if it differs from the given
+	 * step definitions. The steps are compared resource by resource, stopping at
+	 * the first difference.
+	 * 
+	 * @param stepsByResource the steps keyed by the resource that defines them
+	 * @return <code>true</code> if the content was replaced, <code>false</code> if
+	 *         it was equal already
+	 */
+	public boolean update(Map<IResource, ? extends Set<StepDefinition>> stepsByResource) {
+		Map<IResource, Set<StepDefinition>> content = snapshot.content;
+		boolean equal = true;
+		int resources = 0;
+		for (Map.Entry<IResource, ? extends Set<StepDefinition>> entry : stepsByResource.entrySet()) {
+			if (entry.getValue().isEmpty()) {
+				continue;
 			}
+			resources++;
+			Set<StepDefinition> existing = content.get(entry.getKey());
+			if (existing == null || !existing.equals(entry.getValue())) {
+				equal = false;
+				break;
+			}
+		}
+		if (equal && resources == content.size()) {
+			return false;
 		}
-		return fromFilesOnly;
+		replace(stepsByResource);
+		return true;
 	}
 
+	/**
+	 * @return the current state of this repository, it is never modified
+	 *         afterwards
+	 */
+	public Snapshot getSnapshot() {
+		return snapshot;
+	}
+
+	public Set<IFile> getAllStepDefinitionsFiles() {
+		return snapshot.getFiles();
+	}
+
+	/**
+	 * @return an unmodifiable view of all step definitions
+	 */
 	public Set<StepDefinition> getAllStepDefinitions() {
-		Set<StepDefinition> allSteps = new HashSet<StepDefinition>();
-		for (Set<StepDefinition> steps : stepDefinitionsByResourceName.values()) {
-			allSteps.addAll(steps);
-		}
-		return allSteps;
+		return snapshot.getStepDefinitions();
 	}
 
 	public boolean isStepDefinitionsResource(IResource resource) {
-		return this.stepDefinitionsByResourceName.containsKey(resource);
+		return snapshot.content.containsKey(resource);
 	}
 
 	public void reset() {
-		stepDefinitionsByResourceName.clear();
+		publish(Map.of());
+	}
+
+	private synchronized void publish(Map<IResource, Set<StepDefinition>> content) {
+		snapshot = content.isEmpty() ? Snapshot.EMPTY : new Snapshot(content);
 	}
 
+	/**
+	 * Reads a repository written by {@link #write()}
+	 * 
+	 * @param data the persisted data
+	 * @return the repository or <code>null</code> if the data was written in an
+	 *         unknown format
+	 * @throws IOException if the data is corrupted
+	 */
+	static StepDefinitionsRepository read(byte[] data) throws IOException {
+		Map<IResource, Set<StepDefinition>> content = StepDefinitionsFormat.read(data);
+		if (content == null) {
+			return null;
+		}
+		StepDefinitionsRepository repository = new StepDefinitionsRepository();
+		// the decoded sets are immutable already
+		repository.publish(content);
+		return repository;
+	}
+
+	/**
+	 * Writes the persistent form of the current state of this repository
+	 * 
+	 * @param stream the stream to write to, it is not closed
+	 * @throws IOException if writing fails
+	 */
+	void write(OutputStream stream) throws IOException {
+		StepDefinitionsFormat.write(snapshot.content, stream);
+	}
+
+	/**
+	 * An immutable state of a {@link StepDefinitionsRepository}, derived views
+	 * are computed at most once
+	 */
+	public static final class Snapshot {
+
+		private static final Snapshot EMPTY = new Snapshot(Map.of());
+
+		private final Map<IResource, Set<StepDefinition>> content;
+		private volatile Set<StepDefinition> all;
+		private volatile Set<IFile> files;
+
+		private Snapshot(Map<IResource, Set<StepDefinition>> content) {
+			this.content = Collections.unmodifiableMap(content);
+		}
+
+		/**
+		 * @return the resources that define steps
+		 */
+		public Set<IResource> getResources() {
+			return content.keySet();
+		}
+
+		/**
+		 * @param resource the resource
+		 * @return the steps defined by the resource, never <code>null</code>
+		 */
+		public Set<StepDefinition> getStepDefinitions(IResource resource) {
+			Set<StepDefinition> steps = content.get(resource);
+			return steps == null ? Set.of() : steps;
+		}
 
-	@Override
-	public synchronized void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
-		stepDefinitionsByResourceName.clear();
-		int size = in.readInt();
-		for (int i = 0; i < size; i++) {
-			String key = (String) in.readObject();
-			IResource resource = ResourceHelper.find(key);
-			int childSize = in.readInt();
-			Set<StepDefinition> steps = new HashSet<>();
-			for (int j = 0; j < childSize; j++) {
-				StepDefinition step = StorageHelper.readStepDefinition(in);
-				if (step != null) {
-					steps.add(step);
+		/**
+		 * @return all step definitions of this snapshot
+		 */
+		public Set<StepDefinition> getStepDefinitions() {
+			Set<StepDefinition> result = all;
+			if (result == null) {
+				if (content.size() == 1) {
+					result = content.values().iterator().next();
+				} else {
+					Set<StepDefinition> union = new HashSet<>();
+					content.values().forEach(union::addAll);
+					result = Collections.unmodifiableSet(union);
 				}
+				all = result;
 			}
-			// only add data for existing resources...
-			if (resource != null && !steps.isEmpty()) {
-				stepDefinitionsByResourceName.put(resource, steps);
-			}
+			return result;
 		}
-	}
 
-	@Override
-	public synchronized void writeExternal(ObjectOutput out) throws IOException {
-		out.writeInt(stepDefinitionsByResourceName.size());
-		for (Entry<IResource, Set<StepDefinition>> entry : stepDefinitionsByResourceName.entrySet()) {
-			out.writeObject(entry.getKey().getFullPath().toString());
-			Set<StepDefinition> value = entry.getValue();
-			out.writeInt(value.size());
-			for (StepDefinition stepDefinition : value) {
-				StorageHelper.writeStepDefinition(stepDefinition, out);
+		/**
+		 * @return all files that define steps
+		 */
+		public Set<IFile> getFiles() {
+			Set<IFile> result = files;
+			if (result == null) {
+				Set<IFile> fromFilesOnly = new HashSet<>();
+				for (IResource resource : content.keySet()) {
+					if (resource instanceof IFile) {
+						fromFilesOnly.add((IFile) resource);
+					}
+				}
+				files = result = Collections.unmodifiableSet(fromFilesOnly);
 			}
+			return result;
 		}
 
 	}
 
-
 }
@@ -2,10 +2,8 @@ package io.cucumber.eclipse.editor.steps;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -19,32 +17,36 @@ import io.cucumber.eclipse.editor.Activator;
 import io.cucumber.eclipse.editor.BuildStorage;
 import io.cucumber.eclipse.editor.StorageHelper;
 
+/**
+ * Keeps the {@link StepDefinitionsRepository} of each project, a repository is
+ * loaded from the build directory the first time it is requested. Lookups of
+ * already known repositories do not lock.
+ */
 public class StepDefinitionsStorage implements BuildStorage<StepDefinitionsRepository> {
 
 	public static final StepDefinitionsStorage INSTANCE = new StepDefinitionsStorage();
 
 	private static final String BUILD_FILE = "cucumber.stepDefinitions.tmp";
 
-	private Map<IProject, StepDefinitionsRepository> stepDefinitionsByProject = new HashMap<IProject, StepDefinitionsRepository>();
-
-	private List<IProject> initializedProjects = new ArrayList<IProject>();
+	private final ConcurrentMap<IProject, StepDefinitionsRepository> stepDefinitionsByProject = new ConcurrentHashMap<>();
 
 	private StepDefinitionsStorage() {
 	}
 
 	@Override
 	public StepDefinitionsRepository getOrCreate(IProject project, IProgressMonitor monitor) throws CoreException {
-		if (!initializedProjects.contains(project)) {
-			this.load(project, monitor);
-			this.initializedProjects.add(project);
-		}
 		StepDefinitionsRepository stepDefinitionRepository = stepDefinitionsByProject.get(project);
-		if (stepDefinitionRepository == null) {
-			stepDefinitionRepository = new StepDefinitionsRepository();
-			this.add(project, stepDefinitionRepository);
-			this.initializedProjects.add(project);
+		if (stepDefinitionRepository != null) {
+			return stepDefinitionRepository;
+		}
+		synchronized (this) {
+			stepDefinitionRepository = stepDefinitionsByProject.get(project);
+			if (stepDefinitionRepository == null) {
+				stepDefinitionRepository = loadRepository(project);
+				stepDefinitionsByProject.put(project, stepDefinitionRepository);
+			}
+			return stepDefinitionRepository;
 		}
-		return stepDefinitionRepository;
 	}
 
 	@Override
@@ -57,9 +59,9 @@ public class StepDefinitionsStorage implements BuildStorage<StepDefinitionsRepos
 		SubMonitor subMonitor = SubMonitor.convert(monitor, "Persiting step definitions", 100);
 		StepDefinitionsRepository stepDefinitionsRepository = this.getOrCreate(project, subMonitor.newChild(10));
 		try {
-			try (InputStream inputStream = StorageHelper.toStream(stepDefinitionsRepository, subMonitor.newChild(80))) {
-				StorageHelper.saveIntoBuildDirectory(BUILD_FILE, project, subMonitor.newChild(10), inputStream);
-			}
+			// encoded straight into the file, the data is never held in memory as a whole
+			StorageHelper.saveIntoBuildDirectory(BUILD_FILE, project, subMonitor.newChild(90),
+					stepDefinitionsRepository::write);
 		} catch (IOException e) {
 			throw new CoreException(new Status(Status.ERROR, Activator.PLUGIN_ID, e.getMessage(), e));
 		}
@@ -68,33 +70,30 @@ public class StepDefinitionsStorage implements BuildStorage<StepDefinitionsRepos
 
 	@Override
 	public void load(IProject project, IProgressMonitor monitor) throws CoreException {
+		this.add(project, loadRepository(project));
+	}
+
+	private static StepDefinitionsRepository loadRepository(IProject project) throws CoreException {
 		IFolder outputFolder = StorageHelper.getOutputFolder(project);
 		if (!outputFolder.exists()) {
-			return;
+			return new StepDefinitionsRepository();
 		}
 		IFile buildFile = outputFolder.getFile(BUILD_FILE);
 		if (!buildFile.exists()) {
-			return;
+			return new StepDefinitionsRepository();
 		}
+		StepDefinitionsRepository repository = null;
 		try {
-			try (InputStream inputStream = buildFile.getContents()) {
-				StepDefinitionsRepository repository = StorageHelper.fromStream(StepDefinitionsRepository.class,
-						inputStream, monitor);
-				this.add(project, repository);
+			try (InputStream inputStream = buildFile.getContents(true)) {
+				repository = StepDefinitionsRepository.read(inputStream.readAllBytes());
 			}
-		} catch (RuntimeException e) {
-			Activator.getDefault().getLog().log(new Status(Status.ERROR, Activator.PLUGIN_ID,
-					"loading StepDefinitionStore failed, a full rebuild of the project might be required", e));
-			this.add(project, new StepDefinitionsRepository());
 		} catch (IOException e) {
-			Activator.getDefault().getLog().log(new Status(Status.ERROR, Activator.PLUGIN_ID,
-					"loading StepDefinitionStore failed, a full rebuild of the project might be required", e));
-			this.add(project, new StepDefinitionsRepository());
-		} catch (ClassNotFoundException e) {
-			Activator.getDefault().getLog().log(new Status(Status.ERROR, Activator.PLUGIN_ID,
-					"loading StepDefinitionStore failed, a full rebuild of the project might be required", e));
-			this.add(project, new StepDefinitionsRepository());
+			Activator.getDefault().getLog().log(new Status(Status.WARNING, Activator.PLUGIN_ID,
+					"Persisted step definitions are unreadable and will be computed again", e));
 		}
+		// data of an unknown (e.g. older) format is simply replaced the next time the
+		// step definitions are known
+		return repository == null ? new StepDefinitionsRepository() : repository;
 	}
 
 }
@@ -7,8 +7,8 @@ import org.eclipse.jface.text.ITypedRegion;
 import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.rules.DefaultDamagerRepairer;
 
+import io.cucumber.eclipse.editor.document.GherkinDialectSniffer;
 import io.cucumber.eclipse.editor.document.GherkinEditorDocument;
-import io.cucumber.gherkin.GherkinDialect;
 
 /**
  * Damage Repairer with special handling to update keywords on language changes
@@ -18,6 +18,8 @@ import io.cucumber.gherkin.GherkinDialect;
  */
 public class GherkinDamagerRepairer extends DefaultDamagerRepairer {
 
+	private final GherkinDialectSniffer sniffer = new GherkinDialectSniffer();
+
 	private String currentLanguage;
 
 	/**
@@ -29,6 +31,7 @@ public class GherkinDamagerRepairer extends DefaultDamagerRepairer {
 
 	@Override
 	public void setDocument(IDocument document) {
+		currentLanguage = sniffer.sniff(document);
 		updateLanguage(GherkinEditorDocument.get(document, true));
 		super.setDocument(document);
 	}
@@ -36,20 +39,18 @@ public class GherkinDamagerRepairer extends DefaultDamagerRepairer {
 	@Override
 	public IRegion getDamageRegion(ITypedRegion partition, DocumentEvent e, boolean documentPartitioningChanged) {
 		IRegion region = super.getDamageRegion(partition, e, documentPartitioningChanged);
-		IDocument doc = e.getDocument();
-		GherkinEditorDocument gherkinDocument = GherkinEditorDocument.get(doc, true);
-		GherkinDialect dialect = gherkinDocument.getDialect();
-		String language = dialect.getLanguage();
+		String language = sniffer.update(e);
 		if (!language.equals(currentLanguage)) {
-			updateLanguage(gherkinDocument);
+			// only a change of the header requires a full parse to get the new keywords
+			IDocument doc = e.getDocument();
+			currentLanguage = language;
+			updateLanguage(GherkinEditorDocument.get(doc, true));
 			return new Region(0, doc.getLength());
 		}
 		return region;
 	}
 
 	private void updateLanguage(GherkinEditorDocument gherkinDocument) {
-		String language = gherkinDocument.getDialect().getLanguage();
-		currentLanguage = language;
 		GherkinKeywordScanner scanner = (GherkinKeywordScanner) fScanner;
 		scanner.configureRules(gherkinDocument);
 	}
@@ -1,12 +1,20 @@
 package io.cucumber.eclipse.editor.validation;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
+import org.eclipse.core.filebuffers.FileBuffers;
 import org.eclipse.core.filebuffers.IDocumentSetupParticipant;
+import org.eclipse.core.filebuffers.IFileBuffer;
+import org.eclipse.core.filebuffers.IFileBufferListener;
+import org.eclipse.core.filebuffers.ITextFileBuffer;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -16,6 +24,7 @@ import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IDocumentListener;
 
 import io.cucumber.eclipse.editor.document.GherkinEditorDocument;
+import io.cucumber.eclipse.editor.marker.EditorAnnotations;
 import io.cucumber.eclipse.editor.marker.MarkerFactory;
 import io.cucumber.messages.types.ParseError;
 
@@ -30,8 +39,79 @@ public class GherkinSyntaxValidator implements IDocumentSetupParticipant {
 
 	private static ConcurrentMap<IDocument, VerificationJob> jobMap = new ConcurrentHashMap<>();
 
+	/**
+	 * the documents set up for validation, jobs are only kept while they run
+	 */
+	private static Set<IDocument> documents = ConcurrentHashMap.newKeySet();
+
+	static {
+		FileBuffers.getTextFileBufferManager().addFileBufferListener(new IFileBufferListener() {
+
+			@Override
+			public void underlyingFileMoved(IFileBuffer buffer, IPath path) {
+
+			}
+
+			@Override
+			public void underlyingFileDeleted(IFileBuffer buffer) {
+
+			}
+
+			@Override
+			public void stateValidationChanged(IFileBuffer buffer, boolean isStateValidated) {
+
+			}
+
+			@Override
+			public void stateChanging(IFileBuffer buffer) {
+
+			}
+
+			@Override
+			public void stateChangeFailed(IFileBuffer buffer) {
+
+			}
+
+			@Override
+			public void dirtyStateChanged(IFileBuffer buffer, boolean isDirty) {
+				if (!isDirty && buffer instanceof ITextFileBuffer && EditorAnnotations.isEnabled()) {
+					IDocument document = ((ITextFileBuffer) buffer).getDocument();
+					if (documents.contains(document)) {
+						// the document was saved (or reverted), replace the annotations by markers
+						validate(document);
+					}
+				}
+			}
+
+			@Override
+			public void bufferDisposed(IFileBuffer buffer) {
+				if (buffer instanceof ITextFileBuffer) {
+					IDocument document = ((ITextFileBuffer) buffer).getDocument();
+					documents.remove(document);
+					jobMap.remove(document);
+				}
+			}
+
+			@Override
+			public void bufferCreated(IFileBuffer buffer) {
+
+			}
+
+			@Override
+			public void bufferContentReplaced(IFileBuffer buffer) {
+
+			}
+
+			@Override
+			public void bufferContentAboutToBeReplaced(IFileBuffer buffer) {
+
+			}
+		});
+	}
+
 	@Override
 	public void setup(IDocument document) {
+		documents.add(document);
 		document.addDocumentListener(new IDocumentListener() {
 
 			@Override
@@ -45,7 +125,6 @@ public class GherkinSyntaxValidator implements IDocumentSetupParticipant {
 			}
 		});
 		validate(document, 0, false);
-		// TODO get notified on save and then validate persistently
 	}
 
 	public static Job validate(IDocument document) {
@@ -102,7 +181,18 @@ public class GherkinSyntaxValidator implements IDocumentSetupParticipant {
 					if (monitor.isCanceled()) {
 						return Status.CANCEL_STATUS;
 					}
-					MarkerFactory.syntaxErrorOnGherkin(resource, list, peristent);
+					if (!peristent && EditorAnnotations.isEditorOnly(document)) {
+						Map<Integer, String> messages = new TreeMap<>();
+						for (ParseError error : list) {
+							error.getSource().getLocation().ifPresent(location -> messages
+									.merge(location.getLine().intValue(), error.getMessage(), (a, b) -> a + "\n" + b));
+						}
+						EditorAnnotations.update(document, MarkerFactory.GHERKIN_SYNTAX_ERROR,
+								EditorAnnotations.ERROR_TYPE, messages);
+					} else {
+						MarkerFactory.syntaxErrorOnGherkin(resource, list, peristent);
+						EditorAnnotations.clear(document, MarkerFactory.GHERKIN_SYNTAX_ERROR);
+					}
 				}
 			}
 			jobMap.remove(document, this);
@@ -0,0 +1,181 @@
+package io.cucumber.eclipse.java;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+
+import io.cucumber.eclipse.java.preferences.CucumberJavaPreferences;
+
+/**
+ * Creates the classloaders for projects.
+ * <p>
+ * By default each classloader loads the whole classpath of the project in its
+ * original order. If sharing is enabled in the preferences, the jars of the
+ * test frameworks (cucumber, JUnit, AssertJ, Jackson and their dependencies)
+ * are loaded by a shared layer wherever they appear on the classpath, and all
+ * other entries by a thin layer on top of it that belongs to a single
+ * classloader. Only jars that depend on nothing but each other are shared, but
+ * their static state is shared by all users of the layer.
+ * </p>
+ * <p>
+ * Classloaders with the same framework jars, by path and checksum, share the
+ * layer. Layers that are not in use anymore are kept for the next validation,
+ * but at most {@value #MAX_IDLE_LAYERS} of them, the least recently used ones
+ * are closed first.
+ * </p>
+ *
+ * @author christoph
+ *
+ */
+final class ClassLoaderLayers {
+
+	private static final int MAX_IDLE_LAYERS = 4;
+
+	/**
+	 * file names of the self-contained framework jars, followed by a version
+	 */
+	private static final Pattern FRAMEWORK_JAR = Pattern.compile("(cucumber-(core|java|java8|plugin|gherkin"
+			+ "|gherkin-messages|expressions|junit|junit-platform-engine)|gherkin|messages|tag-expressions|datatable"
+			+ "|docstring|ci-environment|html-formatter|query|junit|junit-jupiter-api|junit-jupiter-params"
+			+ "|junit-platform-commons|junit-platform-engine|opentest4j|apiguardian-api|hamcrest|hamcrest-core"
+			+ "|assertj-core|jackson-(core|databind|annotations))-\\d[^/\\\\]*\\.jar");
+
+	/**
+	 * all layers in least recently used order, guarded by itself
+	 */
+	private static final Map<LayerKey, Layer> LAYERS = new LinkedHashMap<>(16, 0.75f, true);
+
+	private static final ConcurrentMap<File, JarChecksum> CHECKSUMS = new ConcurrentHashMap<>();
+
+	private ClassLoaderLayers() {
+	}
+
+	/**
+	 * @param urls   the classpath of the project
+	 * @param parent the parent of the classloader (or the shared layer)
+	 * @return a new classloader for the project, closing it releases the shared
+	 *         layer
+	 */
+	static URLClassLoader create(URL[] urls, ClassLoader parent) {
+		if (!CucumberJavaPreferences.isShareLibraryClassLoaders()) {
+			return new GlueClassLoader(urls, parent, null);
+		}
+		List<URL> shared = new ArrayList<>();
+		List<URL> remaining = new ArrayList<>();
+		List<JarId> jars = new ArrayList<>();
+		for (URL url : urls) {
+			File file = GlueClassLoader.toFile(url);
+			if (file != null && FRAMEWORK_JAR.matcher(file.getName()).matches() && file.isFile()) {
+				shared.add(url);
+				jars.add(new JarId(file.getAbsolutePath(), getChecksum(file)));
+			} else {
+				remaining.add(url);
+			}
+		}
+		if (jars.isEmpty()) {
+			return new GlueClassLoader(urls, parent, null);
+		}
+		LayerKey key = new LayerKey(parent, List.copyOf(jars));
+		Layer layer;
+		synchronized (LAYERS) {
+			layer = LAYERS.get(key);
+			if (layer == null) {
+				layer = new Layer(new GlueClassLoader(shared.toArray(URL[]::new), parent, null));
+				LAYERS.put(key, layer);
+			}
+			layer.references++;
+		}
+		Layer acquired = layer;
+		return new GlueClassLoader(remaining.toArray(URL[]::new), layer.classLoader, () -> release(acquired));
+	}
+
+	private static void release(Layer layer) {
+		List<Layer> evicted = new ArrayList<>();
+		synchronized (LAYERS) {
+			if (--layer.references > 0) {
+				return;
+			}
+			int idle = 0;
+			for (Layer cached : LAYERS.values()) {
+				if (cached.references == 0) {
+					idle++;
+				}
+			}
+			for (Iterator<Layer> iterator = LAYERS.values().iterator(); idle > MAX_IDLE_LAYERS
+					&& iterator.hasNext();) {
+				Layer cached = iterator.next();
+				if (cached.references == 0) {
+					iterator.remove();
+					evicted.add(cached);
+					idle--;
+				}
+			}
+		}
+		for (Layer cached : evicted) {
+			try {
+				cached.classLoader.close();
+			} catch (IOException e) {
+				Activator.warn("can't close shared classloader", e);
+			}
+		}
+	}
+
+	private static long getChecksum(File jar) {
+		long length = jar.length();
+		long lastModified = jar.lastModified();
+		JarChecksum cached = CHECKSUMS.get(jar);
+		if (cached != null && cached.length == length && cached.lastModified == lastModified) {
+			return cached.checksum;
+		}
+		CRC32C crc = new CRC32C();
+		try (InputStream stream = Files.newInputStream(jar.toPath())) {
+			byte[] buffer = new byte[64 * 1024];
+			int read;
+			while ((read = stream.read(buffer)) > 0) {
+				crc.update(buffer, 0, read);
+			}
+		} catch (IOException e) {
+			// not cached, checked again with the next classloader
+			return -1;
+		}
+		long checksum = crc.getValue();
+		CHECKSUMS.put(jar, new JarChecksum(length, lastModified, checksum));
+		return checksum;
+	}
+
+	private static final class Layer {
+
+		private final GlueClassLoader classLoader;
+
+		private int references;
+
+		private Layer(GlueClassLoader classLoader) {
+			this.classLoader = classLoader;
+		}
+	}
+
+	/**
+	 * identifies a shared layer, parents are compared by identity
+	 */
+	private record LayerKey(ClassLoader parent, List<JarId> jars) {
+	}
+
+	private record JarId(String path, long checksum) {
+	}
+
+	private record JarChecksum(long length, long lastModified, long checksum) {
+	}
+
+}
@@ -0,0 +1,267 @@
+package io.cucumber.eclipse.java;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.eclipse.core.runtime.FileLocator;
+
+/**
+ * The classloader used to run cucumber on the classpath of a project inside
+ * the IDE.
+ * <p>
+ * The loader is parallel capable and knows the packages contained in the jars
+ * of the classpath, so lookups of classes and resources in packages that are
+ * not on the classpath (e.g. optional dependencies probed by cucumber or one
+ * of its plugins) fail fast instead of asking every jar. Output folders are
+ * checked on the file system as their content changes with each build.
+ * </p>
+ * <p>
+ * Instances are created by {@link ClassLoaderLayers}, either for the whole
+ * classpath of a project or, if sharing is enabled, for the shared framework
+ * jars or the remaining entries of a single project.
+ * </p>
+ * <p>
+ * Resources found by the parent (the bundle classloader) are resolved to file
+ * URLs once and then cached, resources of this bundle are hidden, see <a href=
+ * "https://github.com/cucumber/cucumber-jvm/issues/2212">cucumber-jvm#2212</a>.
+ * </p>
+ *
+ * @author christoph
+ *
+ */
+final class GlueClassLoader extends URLClassLoader {
+
+	private static final String BUNDLE_RESOURCE = "bundleresource";
+
+	private static final String VERSIONS = "META-INF/versions/";
+
+	private static final ConcurrentMap<String, Optional<URL>> BUNDLE_URLS = new ConcurrentHashMap<>();
+
+	private static final ConcurrentMap<File, JarPackages> JAR_PACKAGES = new ConcurrentHashMap<>();
+
+	static {
+		ClassLoader.registerAsParallelCapable();
+	}
+
+	private final Set<String> packages = new HashSet<>();
+
+	private final List<File> directories = new ArrayList<>();
+
+	private boolean unindexed;
+
+	private final AtomicReference<Runnable> onClose;
+
+	/**
+	 * @param urls    the classpath
+	 * @param parent  the parent classloader
+	 * @param onClose called once the classloader is closed, might be
+	 *                <code>null</code>
+	 */
+	GlueClassLoader(URL[] urls, ClassLoader parent, Runnable onClose) {
+		super(urls, parent);
+		this.onClose = new AtomicReference<>(onClose);
+		for (URL url : urls) {
+			File file = toFile(url);
+			if (file == null) {
+				unindexed = true;
+			} else if (file.isDirectory()) {
+				directories.add(file);
+			} else if (file.isFile()) {
+				JarPackages jarPackages = getPackages(file);
+				if (jarPackages.packages == null) {
+					unindexed = true;
+				} else {
+					packages.addAll(jarPackages.packages);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			super.close();
+		} finally {
+			Runnable runnable = onClose.getAndSet(null);
+			if (runnable != null) {
+				runnable.run();
+			}
+		}
+	}
+
+	@Override
+	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+		// TODO workaround for https://github.com/cucumber/cucumber-jvm/pull/3135
+		try {
+			return super.loadClass(name, resolve);
+		} catch (LinkageError error) {
+			throw new ClassNotFoundException(name + " [" + error.getMessage() + "]", error);
+		}
+	}
+
+	@Override
+	protected Class<?> findClass(String name) throws ClassNotFoundException {
+		int lastDot = name.lastIndexOf('.');
+		if (!mayContain(lastDot < 0 ? "" : name.substring(0, lastDot).replace('.', '/'))) {
+			throw new ClassNotFoundException(name);
+		}
+		return super.findClass(name);
+	}
+
+	@Override
+	public URL findResource(String name) {
+		if (!mayContain(directoryOf(name))) {
+			return null;
+		}
+		return super.findResource(name);
+	}
+
+	@Override
+	public Enumeration<URL> findResources(String name) throws IOException {
+		String path = name.endsWith("/") ? name.substring(0, name.length() - 1) : name;
+		if (!mayContain(path) && !mayContain(directoryOf(path))) {
+			// neither a package nor a resource in a package we know
+			return Collections.emptyEnumeration();
+		}
+		return super.findResources(name);
+	}
+
+	@Override
+	public Enumeration<URL> getResources(String name) throws IOException {
+		List<URL> resources = new ArrayList<>();
+		ClassLoader parent = getParent();
+		if (parent != null) {
+			for (URL url : Collections.list(parent.getResources(name))) {
+				toBundleFileURL(url).ifPresent(resources::add);
+			}
+		}
+		resources.addAll(Collections.list(findResources(name)));
+		return Collections.enumeration(resources);
+	}
+
+	private boolean mayContain(String packagePath) {
+		if (unindexed || packagePath.isEmpty() || packages.contains(packagePath)) {
+			return true;
+		}
+		for (File directory : directories) {
+			if (new File(directory, packagePath).isDirectory()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String directoryOf(String name) {
+		int lastSlash = name.lastIndexOf('/');
+		return lastSlash < 0 ? "" : name.substring(0, lastSlash);
+	}
+
+	static File toFile(URL url) {
+		if (!"file".equals(url.getProtocol())) {
+			return null;
+		}
+		try {
+			return new File(url.toURI());
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the file URL of a resource found in a bundle, the URL itself for
+	 *         all other resources or an empty optional for resources of this
+	 *         bundle or resources that can't be resolved to a file
+	 */
+	private static Optional<URL> toBundleFileURL(URL url) {
+		if (!BUNDLE_RESOURCE.equals(url.getProtocol())) {
+			return Optional.of(url);
+		}
+		// keyed by the string as URL.hashCode() resolves the host
+		return BUNDLE_URLS.computeIfAbsent(url.toExternalForm(), key -> {
+			String host = url.getHost();
+			int indexOf = host.indexOf('.');
+			if (indexOf <= 0) {
+				return Optional.empty();
+			}
+			try {
+				long id = Long.parseLong(host.substring(0, indexOf));
+				if (id == Activator.getDefault().getBundle().getBundleId()) {
+					// we don't want resources to be loaded from our bundle...
+					return Optional.empty();
+				}
+			} catch (RuntimeException e) {
+			}
+			try {
+				URL fileURL = FileLocator.toFileURL(url);
+				if (fileURL.getProtocol().equals("file")) {
+					return Optional.of(fileURL);
+				}
+			} catch (IOException e) {
+			}
+			return Optional.empty();
+		});
+	}
+
+	private static JarPackages getPackages(File jar) {
+		long length = jar.length();
+		long lastModified = jar.lastModified();
+		JarPackages cached = JAR_PACKAGES.get(jar);
+		if (cached != null && cached.length == length && cached.lastModified == lastModified) {
+			return cached;
+		}
+		JarPackages jarPackages = new JarPackages(length, lastModified, readPackages(jar));
+		JAR_PACKAGES.put(jar, jarPackages);
+		return jarPackages;
+	}
+
+	/**
+	 * @return all directories of the jar including their parents or
+	 *         <code>null</code> if the jar can't be read
+	 */
+	private static Set<String> readPackages(File jar) {
+		Set<String> packages = new HashSet<>();
+		try (ZipFile zipFile = new ZipFile(jar)) {
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while (entries.hasMoreElements()) {
+				String name = entries.nextElement().getName();
+				if (name.startsWith(VERSIONS)) {
+					// multi release jars serve these from the unversioned path
+					int version = name.indexOf('/', VERSIONS.length());
+					if (version < 0) {
+						continue;
+					}
+					name = name.substring(version + 1);
+				}
+				String directory = directoryOf(name);
+				while (!directory.isEmpty() && packages.add(directory)) {
+					directory = directoryOf(directory);
+				}
+			}
+		} catch (IOException e) {
+			return null;
+		}
+		return Set.copyOf(packages);
+	}
+
+	/**
+	 * The packages of a jar as of the given size and modification time
+	 */
+	private record JarPackages(long length, long lastModified, Set<String> packages) {
+	}
+
+}
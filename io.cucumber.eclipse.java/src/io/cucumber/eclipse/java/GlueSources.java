@@ -0,0 +1,143 @@
+package io.cucumber.eclipse.java;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * Caches the compilation units of a project that import cucumber glue
+ * annotations, so {@link JDTUtil#getGlueSources(IJavaProject, IProgressMonitor)}
+ * does not need to check the imports of every compilation unit each time.
+ * <p>
+ * The set of a project is computed on first access and then kept current from
+ * Java element deltas: saved, added or removed compilation units are checked
+ * again, changes of the source folders discard the set of the project.
+ * </p>
+ *
+ * @author christoph
+ *
+ */
+final class GlueSources {
+
+	private static final ConcurrentMap<IJavaProject, Set<ICompilationUnit>> SOURCES = new ConcurrentHashMap<>();
+
+	static {
+		JavaCore.addElementChangedListener(event -> {
+			if (!SOURCES.isEmpty()) {
+				update(event.getDelta());
+			}
+		}, ElementChangedEvent.POST_CHANGE);
+	}
+
+	private GlueSources() {
+	}
+
+	/**
+	 * @param javaProject the project
+	 * @param monitor     the progress monitor
+	 * @return the glue compilation units declared in the project itself (not the
+	 *         ones of referenced projects)
+	 * @throws JavaModelException if the project can't be read
+	 */
+	static Set<ICompilationUnit> get(IJavaProject javaProject, IProgressMonitor monitor) throws JavaModelException {
+		Set<ICompilationUnit> units = SOURCES.get(javaProject);
+		if (units != null) {
+			return Collections.unmodifiableSet(units);
+		}
+		units = ConcurrentHashMap.newKeySet();
+		IPackageFragment[] fragments = javaProject.getPackageFragments();
+		SubMonitor subMonitor = SubMonitor.convert(monitor, fragments.length);
+		for (IPackageFragment fragment : fragments) {
+			scan(fragment, units, subMonitor.split(1));
+		}
+		Set<ICompilationUnit> existing = SOURCES.putIfAbsent(javaProject, units);
+		return Collections.unmodifiableSet(existing == null ? units : existing);
+	}
+
+	private static void scan(IPackageFragment fragment, Set<ICompilationUnit> units, IProgressMonitor monitor)
+			throws JavaModelException {
+		ICompilationUnit[] compilationUnits = fragment.getCompilationUnits();
+		SubMonitor subMonitor = SubMonitor.convert(monitor, compilationUnits.length);
+		for (ICompilationUnit unit : compilationUnits) {
+			if (JDTUtil.hasCucumberGlueAnnotation(unit, subMonitor.split(1))) {
+				units.add(unit);
+			}
+		}
+	}
+
+	private static void update(IJavaElementDelta delta) {
+		IJavaElement element = delta.getElement();
+		Set<ICompilationUnit> units = element.getJavaProject() == null ? null
+				: SOURCES.get(element.getJavaProject());
+		if (units == null && element.getElementType() != IJavaElement.JAVA_MODEL) {
+			// nothing cached for this project
+			return;
+		}
+		switch (element.getElementType()) {
+		case IJavaElement.JAVA_MODEL:
+			break;
+		case IJavaElement.JAVA_PROJECT:
+			if (delta.getKind() == IJavaElementDelta.REMOVED || (delta.getFlags() & (IJavaElementDelta.F_CLOSED
+					| IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED)) != 0) {
+				SOURCES.remove(element);
+				return;
+			}
+			break;
+		case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+			if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags()
+					& (IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH)) != 0) {
+				SOURCES.remove(element.getJavaProject());
+				return;
+			}
+			break;
+		case IJavaElement.PACKAGE_FRAGMENT:
+			if (delta.getKind() == IJavaElementDelta.REMOVED) {
+				units.removeIf(unit -> element.equals(unit.getParent()));
+				return;
+			}
+			if (delta.getKind() == IJavaElementDelta.ADDED) {
+				try {
+					scan((IPackageFragment) element, units, null);
+				} catch (JavaModelException e) {
+					SOURCES.remove(element.getJavaProject());
+				}
+				return;
+			}
+			break;
+		case IJavaElement.COMPILATION_UNIT:
+			ICompilationUnit unit = (ICompilationUnit) element;
+			if (!unit.isPrimary()) {
+				// checked again once it is saved
+				return;
+			}
+			try {
+				if (delta.getKind() != IJavaElementDelta.REMOVED && JDTUtil.hasCucumberGlueAnnotation(unit, null)) {
+					units.add(unit);
+				} else {
+					units.remove(unit);
+				}
+			} catch (JavaModelException e) {
+				units.remove(unit);
+			}
+			return;
+		default:
+			return;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			update(child);
+		}
+	}
+
+}
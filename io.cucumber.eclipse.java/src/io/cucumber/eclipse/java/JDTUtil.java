@@ -1,8 +1,5 @@
 package io.cucumber.eclipse.java;
 
-import java.io.File;
-import java.io.IOException;
-import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
@@ -10,16 +7,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
-import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
-import java.util.Spliterator;
-import java.util.Spliterators;
 import java.util.regex.Matcher;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 import org.eclipse.core.filebuffers.FileBuffers;
 import org.eclipse.core.filebuffers.ITextFileBuffer;
@@ -28,23 +20,21 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IImportDeclaration;
+import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaModel;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.ILocalVariable;
 import org.eclipse.jdt.core.IMethod;
-import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.Signature;
 import org.eclipse.jdt.internal.ui.text.javadoc.JavadocContentAccess2;
-import org.eclipse.jdt.launching.JavaRuntime;
 import org.eclipse.jface.internal.text.html.HTMLPrinter;
 import org.eclipse.jface.resource.ColorRegistry;
 import org.eclipse.jface.resource.JFaceResources;
@@ -110,78 +100,9 @@ public class JDTUtil {
 	}
 
 	public static URLClassLoader createClassloader(IJavaProject javaProject, ClassLoader parent) throws CoreException {
-		String[] classPathEntries = JavaRuntime.computeDefaultRuntimeClassPath(javaProject);
-		List<URL> urlList = new ArrayList<URL>();
-		for (String entry : classPathEntries) {
-			try {
-				if (entry.startsWith("file:/")) {
-					urlList.add(new URL(entry));
-				} else {
-					urlList.add(new File(entry).toURI().toURL());
-				}
-			} catch (MalformedURLException e) {
-				Activator.getDefault().getLog().error(
-						"can't add classpathentry " + entry + " for project " + javaProject.getProject().getName(), e);
-			}
-		}
+		List<URL> urlList = RuntimeClasspath.of(javaProject).urls();
 		URL[] urls = urlList.toArray(new URL[urlList.size()]);
-		return new SafeURLClassLoader(urls, new FilteringClassLoader(parent));
-	}
-
-	//TODO workaround for https://github.com/cucumber/cucumber-jvm/pull/3135
-	private static final class SafeURLClassLoader extends URLClassLoader {
-		private SafeURLClassLoader(URL[] urls, ClassLoader parent) {
-			super(urls, parent);
-		}
-
-		@Override
-		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
-			try {
-				return super.loadClass(name, resolve);
-			} catch (LinkageError error) {
-				throw new ClassNotFoundException(name + " [" + error.getMessage() + "]", error);
-			}
-		}
-	}
-
-	// TODO workaround for bug https://github.com/cucumber/cucumber-jvm/issues/2212
-	private static final class FilteringClassLoader extends ClassLoader {
-		public FilteringClassLoader(ClassLoader parent) {
-			super("FilteringClassLoader", parent);
-		}
-
-		@Override
-		public Enumeration<URL> getResources(String name) throws IOException {
-			Spliterator<URL> spliterator = Spliterators.spliteratorUnknownSize(super.getResources(name).asIterator(),
-					Spliterator.ORDERED);
-			return Collections.enumeration(StreamSupport.stream(spliterator, false).map(url -> {
-				boolean equals = url.getProtocol().equals("bundleresource");
-				if (equals) {
-					String host = url.getHost();
-					int indexOf = host.indexOf('.');
-					if (indexOf > 0) {
-						try {
-							long id = Long.parseLong(host.substring(0, indexOf));
-							if (id == Activator.getDefault().getBundle().getBundleId()) {
-								// we don't want resources to be loaded from our bundle...
-								return null;
-							}
-						} catch (Exception e) {
-						}
-						try {
-							URL fileURL = FileLocator.toFileURL(url);
-							if (fileURL.getProtocol().equals("file")) {
-								return fileURL;
-							}
-						} catch (IOException e) {
-						}
-					}
-					return null;
-				}
-				return url;
-			}).filter(Objects::nonNull).collect(Collectors.toList()));
-		}
-
+		return ClassLoaderLayers.create(urls, parent);
 	}
 
 	public static IMethod[] resolveMethod(IJavaProject project, CucumberCodeLocation codeLocation,
@@ -191,7 +112,16 @@ public class JDTUtil {
 		if (typeName.isBlank()) {
 			return new IMethod[0];
 		}
-		return resolveTypeMethod(project.findType(typeName, subMonitor.split(10)), codeLocation, subMonitor.split(90));
+		IMethod[] methods = MethodResolutions.get(project, codeLocation);
+		if (methods != null) {
+			return methods;
+		}
+		methods = resolveTypeMethod(project.findType(typeName, subMonitor.split(10)), codeLocation,
+				subMonitor.split(90));
+		if (methods != null) {
+			MethodResolutions.put(project, codeLocation, methods);
+		}
+		return methods;
 	}
 
 	public static IMethod[] resolveTypeMethod(IType type, CucumberCodeLocation codeLocation, IProgressMonitor monitor)
@@ -280,6 +210,23 @@ public class JDTUtil {
 		return name.toString();
 	}
 
+	/**
+	 * @param type the type
+	 * @return the path of the library (e.g. a jar) that contains the type or
+	 *         <code>null</code> if the type is declared in a source file of the
+	 *         workspace
+	 */
+	public static String getLibrary(IType type) {
+		if (type.getResource() != null) {
+			return null;
+		}
+		IJavaElement root = type.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+		if (root == null) {
+			return null;
+		}
+		return root.getPath().toPortableString();
+	}
+
 	public static String getJavadoc(IMethod method) {
 		try {
 			String content = JavadocContentAccess2.getHTMLContent(method, true);
@@ -309,19 +256,11 @@ public class JDTUtil {
 
 	private static void findGlueSources(IJavaProject javaProject, List<ICompilationUnit> units,
 			Set<String> analyzedProjects, IProgressMonitor monitor) throws CoreException {
-		IPackageFragment[] fragments = javaProject.getPackageFragments();
-		SubMonitor subMonitor = SubMonitor.convert(monitor, units.size() * 100 + fragments.length * 100);
-		for (IPackageFragment fragment : fragments) {
-			ICompilationUnit[] compilationUnits = fragment.getCompilationUnits();
-			SubMonitor subSub = subMonitor.split(100);
-			subSub.setWorkRemaining(compilationUnits.length);
-			for (ICompilationUnit unit : compilationUnits) {
-				if (hasCucumberGlueAnnotation(unit, subSub.split(1))) {
-					units.add(unit);
-				}
-			}
-		}
-		IJavaProject[] references = Arrays.stream(javaProject.getProject().getReferencedProjects()).map(project -> {
+		IProject[] referencedProjects = javaProject.getProject().getReferencedProjects();
+		SubMonitor subMonitor = SubMonitor.convert(monitor, 100 + referencedProjects.length * 100);
+		// the glue units of each project are only searched once and then kept up to date
+		units.addAll(GlueSources.get(javaProject, subMonitor.split(100)));
+		IJavaProject[] references = Arrays.stream(referencedProjects).map(project -> {
 			if (analyzedProjects.add(project.getName())) {
 				try {
 					return JDTUtil.getJavaProject(project);
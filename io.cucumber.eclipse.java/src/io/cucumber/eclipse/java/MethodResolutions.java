@@ -0,0 +1,142 @@
+package io.cucumber.eclipse.java;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+
+import io.cucumber.eclipse.java.plugins.CucumberCodeLocation;
+
+/**
+ * Remembers the methods a {@link CucumberCodeLocation} was resolved to as
+ * handle identifiers, so code minings, step definitions and hyperlinks do not
+ * need to look up the type and compare all parameter types again for the same
+ * location.
+ * <p>
+ * Entries are dropped per type as soon as JDT reports a change of the
+ * compilation unit declaring it, changes of jars or the classpath drop all
+ * entries.
+ * </p>
+ *
+ * @author christoph
+ *
+ */
+final class MethodResolutions {
+
+	private static final ConcurrentMap<Key, String[]> RESOLVED = new ConcurrentHashMap<>();
+
+	static {
+		JavaCore.addElementChangedListener(event -> {
+			if (!RESOLVED.isEmpty()) {
+				invalidate(event.getDelta());
+			}
+		}, ElementChangedEvent.POST_CHANGE);
+	}
+
+	private MethodResolutions() {
+	}
+
+	/**
+	 * @param project      the project the location was resolved in
+	 * @param codeLocation the location
+	 * @return the methods or <code>null</code> if the location was not resolved
+	 *         yet or one of the methods does not exist anymore
+	 */
+	static IMethod[] get(IJavaProject project, CucumberCodeLocation codeLocation) {
+		String[] handles = RESOLVED.get(new Key(project, codeLocation));
+		if (handles == null) {
+			return null;
+		}
+		IMethod[] methods = new IMethod[handles.length];
+		for (int i = 0; i < handles.length; i++) {
+			IJavaElement element = JavaCore.create(handles[i]);
+			if (!(element instanceof IMethod) || !element.exists()) {
+				return null;
+			}
+			methods[i] = (IMethod) element;
+		}
+		return methods;
+	}
+
+	/**
+	 * @param project      the project the location was resolved in
+	 * @param codeLocation the location
+	 * @param methods      the methods the location resolves to
+	 */
+	static void put(IJavaProject project, CucumberCodeLocation codeLocation, IMethod[] methods) {
+		RESOLVED.put(new Key(project, codeLocation),
+				Arrays.stream(methods).map(IMethod::getHandleIdentifier).toArray(String[]::new));
+	}
+
+	private static void invalidate(IJavaElementDelta delta) {
+		IJavaElement element = delta.getElement();
+		switch (element.getElementType()) {
+		case IJavaElement.JAVA_PROJECT:
+			if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & (IJavaElementDelta.F_CLOSED
+					| IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED)) != 0) {
+				// types might be found in a different place now
+				RESOLVED.clear();
+				return;
+			}
+			break;
+		case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+			if (((IPackageFragmentRoot) element).isArchive() || delta.getKind() != IJavaElementDelta.CHANGED) {
+				RESOLVED.clear();
+				return;
+			}
+			break;
+		case IJavaElement.PACKAGE_FRAGMENT:
+			if (delta.getKind() != IJavaElementDelta.CHANGED) {
+				String packagePrefix = element.getElementName().isEmpty() ? "" : element.getElementName() + ".";
+				RESOLVED.keySet().removeIf(key -> key.typeName().startsWith(packagePrefix));
+				return;
+			}
+			break;
+		case IJavaElement.COMPILATION_UNIT:
+			ICompilationUnit compilationUnit = (ICompilationUnit) element;
+			if (!compilationUnit.isPrimary()) {
+				// resolved again once the working copy is saved
+				return;
+			}
+			String typeName = topLevelTypeName(compilationUnit);
+			RESOLVED.keySet().removeIf(key -> key.typeName().equals(typeName));
+			return;
+		default:
+			break;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			invalidate(child);
+		}
+	}
+
+	private static String topLevelTypeName(ICompilationUnit compilationUnit) {
+		String name = compilationUnit.getElementName();
+		int extension = name.lastIndexOf('.');
+		if (extension > 0) {
+			name = name.substring(0, extension);
+		}
+		String packageName = compilationUnit.getParent().getElementName();
+		return packageName.isEmpty() ? name : packageName + "." + name;
+	}
+
+	private record Key(IJavaProject project, CucumberCodeLocation location) {
+
+		/**
+		 * @return the top level type declaring the location
+		 */
+		String typeName() {
+			String typeName = location.getTypeName();
+			int nested = typeName.indexOf('$');
+			return nested < 0 ? typeName : typeName.substring(0, nested);
+		}
+	}
+
+}
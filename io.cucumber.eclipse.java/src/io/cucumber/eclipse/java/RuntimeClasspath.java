@@ -0,0 +1,141 @@
+package io.cucumber.eclipse.java;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.launching.JavaRuntime;
+
+/**
+ * The runtime classpath of a Java project as computed by
+ * {@link JavaRuntime#computeDefaultRuntimeClassPath(IJavaProject)}.
+ * <p>
+ * Computing the classpath resolves all containers (e.g. the Maven or Gradle
+ * dependencies) and is therefore expensive, so the result is cached per project
+ * and shared by the validation and the launching. Any change of a classpath,
+ * of the content of a jar or of the set of open projects discards all cached
+ * classpaths, as projects include the classpath of the projects they depend
+ * on.
+ * </p>
+ *
+ * @param entries     the classpath entries as file system paths (or file URLs)
+ * @param urls        the classpath entries as URLs
+ * @param fingerprint a hash of all entries and the size and modification time
+ *                    of the files they denote, equal fingerprints denote the
+ *                    same classpath
+ *
+ * @author christoph
+ *
+ */
+public record RuntimeClasspath(List<String> entries, List<URL> urls, String fingerprint) {
+
+	private static final int CLASSPATH_FLAGS = IJavaElementDelta.F_CLASSPATH_CHANGED
+			| IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED | IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED
+			| IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH
+			| IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED;
+
+	private static final ConcurrentMap<IJavaProject, RuntimeClasspath> CLASSPATHS = new ConcurrentHashMap<>();
+
+	static {
+		JavaCore.addElementChangedListener(event -> {
+			if (!CLASSPATHS.isEmpty() && affectsClasspath(event.getDelta())) {
+				CLASSPATHS.clear();
+			}
+		}, ElementChangedEvent.POST_CHANGE);
+	}
+
+	/**
+	 * @param javaProject the project
+	 * @return the (cached) runtime classpath of the project
+	 * @throws CoreException if the classpath can't be computed
+	 */
+	public static RuntimeClasspath of(IJavaProject javaProject) throws CoreException {
+		RuntimeClasspath classpath = CLASSPATHS.get(javaProject);
+		if (classpath == null) {
+			classpath = compute(javaProject);
+			RuntimeClasspath existing = CLASSPATHS.putIfAbsent(javaProject, classpath);
+			if (existing != null) {
+				classpath = existing;
+			}
+		}
+		return classpath;
+	}
+
+	/**
+	 * @return the entries as an array, e.g. to pass them to a VM runner
+	 */
+	public String[] toArray() {
+		return entries.toArray(String[]::new);
+	}
+
+	private static RuntimeClasspath compute(IJavaProject javaProject) throws CoreException {
+		String[] classPathEntries = JavaRuntime.computeDefaultRuntimeClassPath(javaProject);
+		List<URL> urlList = new ArrayList<URL>();
+		MessageDigest digest = sha256();
+		for (String entry : classPathEntries) {
+			try {
+				File file;
+				if (entry.startsWith("file:/")) {
+					URL url = new URL(entry);
+					urlList.add(url);
+					file = new File(url.getPath());
+				} else {
+					file = new File(entry);
+					urlList.add(file.toURI().toURL());
+				}
+				digest.update((entry + '|' + file.length() + '|' + file.lastModified() + '\n')
+						.getBytes(StandardCharsets.UTF_8));
+			} catch (MalformedURLException e) {
+				Activator.getDefault().getLog().error(
+						"can't add classpathentry " + entry + " for project " + javaProject.getProject().getName(), e);
+			}
+		}
+		return new RuntimeClasspath(List.of(classPathEntries), Collections.unmodifiableList(urlList),
+				HexFormat.of().formatHex(digest.digest()));
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// every Java platform is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static boolean affectsClasspath(IJavaElementDelta delta) {
+		if ((delta.getFlags() & CLASSPATH_FLAGS) != 0) {
+			return true;
+		}
+		int type = delta.getElement().getElementType();
+		if (type == IJavaElement.JAVA_PROJECT && delta.getKind() != IJavaElementDelta.CHANGED) {
+			return true;
+		}
+		if (type != IJavaElement.JAVA_MODEL && type != IJavaElement.JAVA_PROJECT) {
+			// changes below the package fragment roots do not change the classpath
+			return false;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			if (affectsClasspath(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
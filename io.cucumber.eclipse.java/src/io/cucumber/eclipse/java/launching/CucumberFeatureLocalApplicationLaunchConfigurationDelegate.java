@@ -29,6 +29,7 @@ import org.eclipse.jdt.launching.AbstractJavaLaunchConfigurationDelegate;
 import org.eclipse.jdt.launching.IJavaLaunchConfigurationConstants;
 import org.eclipse.jdt.launching.IVMInstall;
 import org.eclipse.jdt.launching.IVMRunner;
+import org.eclipse.jdt.launching.JavaRuntime;
 import org.eclipse.jdt.launching.VMRunnerConfiguration;
 import org.osgi.framework.FrameworkUtil;
 
@@ -44,6 +45,7 @@ import io.cucumber.eclipse.editor.document.GherkinMessageHandler;
 import io.cucumber.eclipse.editor.document.TestStepEvent;
 import io.cucumber.eclipse.editor.launching.Mode;
 import io.cucumber.eclipse.java.JDTUtil;
+import io.cucumber.eclipse.java.RuntimeClasspath;
 import io.cucumber.eclipse.java.plugins.CucumberEclipsePlugin;
 import io.cucumber.eclipse.java.runtime.CucumberRuntime;
 import io.cucumber.tagexpressions.Expression;
@@ -235,6 +237,23 @@ public class CucumberFeatureLocalApplicationLaunchConfigurationDelegate extends
 
 	}
 
+	/**
+	 * Reuses the cached {@link RuntimeClasspath} of the project for the common
+	 * case of a launch with the default classpath of a non modular project, all
+	 * other configurations are resolved as usual.
+	 */
+	@Override
+	public String[][] getClasspathAndModulepath(ILaunchConfiguration config) throws CoreException {
+		IJavaProject project = getJavaProject(config);
+		if (project != null && config.getAttribute(IJavaLaunchConfigurationConstants.ATTR_DEFAULT_CLASSPATH, true)
+				&& config.getAttribute(IJavaLaunchConfigurationConstants.ATTR_CLASSPATH_PROVIDER, (String) null) == null
+				&& !config.getAttribute(IJavaLaunchConfigurationConstants.ATTR_EXCLUDE_TEST_CODE, false)
+				&& !JavaRuntime.isModularProject(project)) {
+			return new String[][] { RuntimeClasspath.of(project).toArray(), new String[0] };
+		}
+		return super.getClasspathAndModulepath(config);
+	}
+
 	private void runEmbedded(ILaunchConfiguration config, String mode, ILaunch launch, IProgressMonitor monitor)
 			throws CoreException {
 		String projectName = config.getAttribute(IJavaLaunchConfigurationConstants.ATTR_PROJECT_NAME, "");
@@ -20,6 +20,7 @@ import io.cucumber.plugin.event.SnippetsSuggestedEvent;
 public class CucumberMissingStepsPlugin implements Plugin, ConcurrentEventListener, EventListener {
 
 	private Map<Integer, Collection<String>> snippets = new ConcurrentHashMap<>();
+	private Map<Integer, Collection<Integer>> testCaseSteps = new ConcurrentHashMap<>();
 
 	@Override
 	public void setEventPublisher(EventPublisher publisher) {
@@ -31,10 +32,20 @@ public class CucumberMissingStepsPlugin implements Plugin, ConcurrentEventListen
 		Location stepLocation = event.getStepLocation();
 		snippets.computeIfAbsent(stepLocation.getLine(), l -> ConcurrentHashMap.newKeySet())
 				.addAll(event.getSnippets());
+		testCaseSteps.computeIfAbsent(event.getTestCaseLocation().getLine(), l -> ConcurrentHashMap.newKeySet())
+				.add(stepLocation.getLine());
 	}
 
 	public Map<Integer, Collection<String>> getSnippets() {
 		return snippets;
 	}
 
+	/**
+	 * @return the lines of the missing steps keyed by the line of the test case
+	 *         (e.g. the examples row of an outline) that contains them
+	 */
+	public Map<Integer, Collection<Integer>> getTestCaseSteps() {
+		return testCaseSteps;
+	}
+
 }
@@ -48,6 +48,7 @@ public final record CucumberJavaPreferences(IPreferenceStore store, IEclipsePref
 	static final String PREF_ACTIVE_FILTERS_LIST = Activator.PLUGIN_ID + ".active_filters";
 	static final String PREF_INACTIVE_FILTERS_LIST = Activator.PLUGIN_ID + ".inactive_filters";
 	static final String PREF_SHOW_HOOK_ANNOTATIONS = Activator.PLUGIN_ID + ".show_hooks";
+	static final String PREF_SHARE_LIBRARY_CLASSLOADERS = Activator.PLUGIN_ID + ".share_library_classloaders";
 
 	/**
 	 * Creates a preferences instance using workspace settings only.
@@ -122,6 +123,18 @@ public final record CucumberJavaPreferences(IPreferenceStore store, IEclipsePref
 		return buffer.toString();
 	}
 
+	/**
+	 * Checks if the jars of the test frameworks are loaded by classloaders shared
+	 * between projects and validations. This is off by default as the shared jars
+	 * are loaded before all other classpath entries and keep their static state
+	 * between runs.
+	 * 
+	 * @return true if library classloaders are shared
+	 */
+	public static boolean isShareLibraryClassLoaders() {
+		return Activator.getDefault().getPreferenceStore().getBoolean(PREF_SHARE_LIBRARY_CLASSLOADERS);
+	}
+
 	/**
 	 * Sets the workspace preference for showing hook annotations.
 	 * 
@@ -25,6 +25,7 @@ public class CucumberJavaPreferencesPage extends PreferencePage implements IWork
 	public static final String PAGE_ID = "cucumber.eclipse.editor.steps.jdt.CucumberJavaPreferencesPage"; //$NON-NLS-1$
 
 	private Button showHookAnnotations;
+	private Button shareLibraryClassLoaders;
 	private GlueCodePackageTable glueCodePackageTable;
 
 	private CucumberJavaPreferences javaPreferences;
@@ -80,6 +81,11 @@ public class CucumberJavaPreferencesPage extends PreferencePage implements IWork
 		};
 
 		showHookAnnotations = createHookButton(container, javaPreferences.showHooks());
+		shareLibraryClassLoaders = new Button(container, SWT.CHECK);
+		shareLibraryClassLoaders.setText("Share classloaders of test framework jars between validations");
+		shareLibraryClassLoaders.setToolTipText(
+				"Cucumber, JUnit, AssertJ and Jackson jars are loaded before the project and keep their static state between runs");
+		shareLibraryClassLoaders.setSelection(CucumberJavaPreferences.isShareLibraryClassLoaders());
 
 	}
 
@@ -98,6 +104,8 @@ public class CucumberJavaPreferencesPage extends PreferencePage implements IWork
 		getPreferenceStore().setValue(CucumberJavaPreferences.PREF_INACTIVE_FILTERS_LIST, filterStrings.inactive());
 
 		CucumberJavaPreferences.setShowHooks(getPreferenceStore(), showHookAnnotations.getSelection());
+		getPreferenceStore().setValue(CucumberJavaPreferences.PREF_SHARE_LIBRARY_CLASSLOADERS,
+				shareLibraryClassLoaders.getSelection());
 		return super.performOk();
 	}
 
@@ -106,6 +114,8 @@ public class CucumberJavaPreferencesPage extends PreferencePage implements IWork
 		glueCodePackageTable.performDefaults();
 		showHookAnnotations.setSelection(
 				getPreferenceStore().getDefaultBoolean(CucumberJavaPreferences.PREF_SHOW_HOOK_ANNOTATIONS));
+		shareLibraryClassLoaders.setSelection(
+				getPreferenceStore().getDefaultBoolean(CucumberJavaPreferences.PREF_SHARE_LIBRARY_CLASSLOADERS));
 		super.performDefaults();
 	}
 
@@ -153,6 +153,17 @@ public final class CucumberRuntime implements AutoCloseable {
 	}
 
 	public void addFeature(GherkinEditorDocument document) {
+		addFeature(document, document.getDocument().get());
+	}
+
+	/**
+	 * Adds the feature of the given document using a (possibly modified) text
+	 * instead of the current content of the document
+	 * 
+	 * @param document the document to add
+	 * @param text     the text to parse for the feature
+	 */
+	public void addFeature(GherkinEditorDocument document, String text) {
 		IResource resource = document.getResource();
 		URI uri = Objects.requireNonNullElseGet(resource.getLocationURI(), () -> resource.getRawLocationURI());
 		// TODO can we get any information about an error here??
@@ -167,7 +178,7 @@ public final class CucumberRuntime implements AutoCloseable {
 
 			@Override
 			public InputStream getInputStream() throws IOException {
-				return new ByteArrayInputStream(document.getDocument().get().getBytes(StandardCharsets.UTF_8));
+				return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
 			}
 		}).ifPresent(features::add);
 	}
@@ -7,16 +7,25 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
@@ -28,8 +37,12 @@ import org.osgi.service.component.annotations.Component;
 import io.cucumber.core.gherkin.Feature;
 import io.cucumber.core.resource.Resource;
 import io.cucumber.eclipse.editor.steps.ExpressionDefinition;
+import io.cucumber.eclipse.editor.steps.IStepDefinitionsListener;
 import io.cucumber.eclipse.editor.steps.IStepDefinitionsProvider;
 import io.cucumber.eclipse.editor.steps.StepDefinition;
+import io.cucumber.eclipse.editor.steps.StepDefinitionsRepository;
+import io.cucumber.eclipse.editor.steps.StepDefinitionsNotifier;
+import io.cucumber.eclipse.editor.steps.StepDefinitionsStorage;
 import io.cucumber.eclipse.java.JDTUtil;
 import io.cucumber.eclipse.java.plugins.CucumberCodeLocation;
 import io.cucumber.eclipse.java.plugins.CucumberStepDefinition;
@@ -46,6 +59,23 @@ import io.cucumber.eclipse.java.validation.CucumberGlueValidator;
 		IStepDefinitionsProvider.PROVIDER_NAME + "=Cucumber JVM Runtime", Constants.SERVICE_RANKING + ":Integer=100" })
 public class CucumberStepDefinitionProvider extends JavaStepDefinitionsProvider {
 
+	private static final StepDefinitionsNotifier NOTIFIER = new StepDefinitionsNotifier();
+
+	/**
+	 * the glue of each project that was pushed to the listeners last
+	 */
+	private static final ConcurrentMap<IProject, Set<GlueStep>> PUSHED = new ConcurrentHashMap<>();
+
+	static {
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(event -> {
+			if (event.getResource() instanceof IProject) {
+				IProject project = (IProject) event.getResource();
+				PUSHED.remove(project);
+				NOTIFIER.forget(project);
+			}
+		}, IResourceChangeEvent.PRE_CLOSE | IResourceChangeEvent.PRE_DELETE);
+	}
+
 	private Feature dummyFeature;
 
 	public CucumberStepDefinitionProvider() throws URISyntaxException {
@@ -74,9 +104,13 @@ public class CucumberStepDefinitionProvider extends JavaStepDefinitionsProvider
 					subMonitor.split(100));
 			SubMonitor remaining = subMonitor.setWorkRemaining(steps.size());
 			Map<String, IType> typeBuffer = new ConcurrentHashMap<>();
-			return steps.parallelStream()
+			List<StepDefinition> definitions = steps.parallelStream()
 					.map(cucumberStep -> parseStepDefintion(cucumberStep, javaProject, typeBuffer, remaining.split(1)))
 					.filter(Objects::nonNull).collect(Collectors.toList());
+			if (CucumberGlueValidator.hasResults(viewer.getDocument())) {
+				remember(resource.getProject(), definitions);
+			}
+			return definitions;
 		} catch (OperationCanceledException e) {
 		} catch (InterruptedException e) {
 			Thread.currentThread().interrupt();
@@ -84,7 +118,110 @@ public class CucumberStepDefinitionProvider extends JavaStepDefinitionsProvider
 		return Collections.emptyList();
 	}
 
-	private StepDefinition parseStepDefintion(CucumberStepDefinition cucumberStep, IJavaProject project,
+	@Override
+	public boolean addStepDefinitionsListener(IStepDefinitionsListener listener) {
+		// the next validation pushes the glue again so the new listener gets the
+		// current state
+		PUSHED.clear();
+		return NOTIFIER.addListener(listener);
+	}
+
+	@Override
+	public void removeStepDefinitionsListener(IStepDefinitionsListener listener) {
+		NOTIFIER.removeListener(listener);
+	}
+
+	/**
+	 * Notifies the listeners of this provider about the step definitions found by
+	 * a validation of the glue code and persists them, nothing is done if the
+	 * glue is the same as the one pushed last for the project
+	 * 
+	 * @param javaProject the project that was validated
+	 * @param steps       the steps found by the validation
+	 * @param monitor     the progress monitor
+	 */
+	public static void stepsValidated(IJavaProject javaProject, Collection<CucumberStepDefinition> steps,
+			IProgressMonitor monitor) {
+		if (!NOTIFIER.hasListeners() || monitor.isCanceled()) {
+			return;
+		}
+		Set<GlueStep> glue = new HashSet<>();
+		for (CucumberStepDefinition step : steps) {
+			io.cucumber.plugin.event.StepDefinition stepDefinition = step.getStepDefinition();
+			glue.add(new GlueStep(stepDefinition.getLocation(), stepDefinition.getPattern()));
+		}
+		if (glue.equals(PUSHED.put(javaProject.getProject(), glue))) {
+			// all feature files of a project are validated with the same glue
+			return;
+		}
+		Map<String, IType> typeBuffer = new ConcurrentHashMap<>();
+		// the lookups are not canceled, the validation result is complete already
+		List<StepDefinition> definitions = steps.stream()
+				.map(cucumberStep -> parseStepDefintion(cucumberStep, javaProject, typeBuffer, null))
+				.filter(Objects::nonNull).collect(Collectors.toList());
+		// notified listeners don't search anymore, so the steps are persisted here
+		remember(javaProject.getProject(), definitions);
+		NOTIFIER.update(javaProject.getProject(), definitions);
+	}
+
+	@Override
+	public Collection<StepDefinition> getKnownStepDefinitions(IResource resource) {
+		try {
+			Collection<StepDefinition> persisted = StepDefinitionsStorage.INSTANCE
+					.getOrCreate(resource.getProject(), null).getAllStepDefinitions();
+			if (!persisted.isEmpty()) {
+				return persisted;
+			}
+		} catch (CoreException | IllegalStateException e) {
+			// nothing persisted for this project
+		}
+		try {
+			IJavaProject javaProject = JDTUtil.getJavaProject(resource);
+			if (javaProject != null) {
+				// the search index knows the annotated methods without running any glue code
+				return JavaGlueIndex.getStepDefinitions(javaProject, null);
+			}
+		} catch (CoreException e) {
+			// nothing can be found then
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Persists the step definitions found for the project so they are available
+	 * right away in the next session
+	 */
+	private static void remember(IProject project, Collection<StepDefinition> definitions) {
+		StepDefinitionsRepository repository;
+		try {
+			repository = StepDefinitionsStorage.INSTANCE.getOrCreate(project, null);
+		} catch (CoreException | IllegalStateException e) {
+			return;
+		}
+		Map<IResource, Set<StepDefinition>> byResource = new HashMap<>();
+		for (StepDefinition definition : definitions) {
+			IResource source = definition.getSource();
+			byResource.computeIfAbsent(source == null ? project : source, r -> new HashSet<>()).add(definition);
+		}
+		if (!repository.update(byResource)) {
+			// persisted already
+			return;
+		}
+		Job job = Job.create("Persist step definitions of " + project.getName(),
+				monitor -> StepDefinitionsStorage.INSTANCE.persist(project, monitor));
+		job.setSystem(true);
+		job.setRule(project);
+		job.schedule();
+	}
+
+	/**
+	 * identifies a step definition of the glue independent of the run that found
+	 * it
+	 */
+	private record GlueStep(String location, String pattern) {
+	}
+
+	private static StepDefinition parseStepDefintion(CucumberStepDefinition cucumberStep, IJavaProject project,
 			Map<String, IType> typeBuffer, IProgressMonitor monitor) {
 		CucumberCodeLocation codeLocation = cucumberStep.getCodeLocation();
 		io.cucumber.plugin.event.StepDefinition cucumberStepDefinition = cucumberStep.getStepDefinition();
@@ -99,17 +236,15 @@ public class CucumberStepDefinitionProvider extends JavaStepDefinitionsProvider
 			try {
 				IMethod[] methods = JDTUtil.resolveMethod(project, codeLocation, monitor);
 				if (methods.length == 1) {
-					
-					
-					// perfect match
+					// perfect match, the details are only needed for the proposals actually shown
 					IMethod method = methods[0];
-					int lineNumber = getLineNumber(method.getCompilationUnit(), method);
 					ExpressionDefinition expression = new ExpressionDefinition(cucumberStepDefinition.getPattern());
 					String id = method.getHandleIdentifier();
 					return new StepDefinition(id, JDTUtil.getMethodName(method), expression,
-							type.getResource(), lineNumber, method.getElementName(),
-							type.getPackageFragment().getElementName(), getParameter(method),
-							JDTUtil.getJavadoc(method));
+							type.getResource(), () -> getLineNumber(method), method.getElementName(),
+							type.getPackageFragment().getElementName(), JDTUtil.getLibrary(type),
+							() -> getParameters(method),
+							() -> JDTUtil.getJavadoc(method));
 				}
 			} catch (JavaModelException e) {
 			}
@@ -0,0 +1,290 @@
+package io.cucumber.eclipse.java.steps;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IAnnotation;
+import org.eclipse.jdt.core.IClassFile;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IOpenable;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.SearchRequestor;
+
+import io.cucumber.eclipse.editor.steps.ExpressionDefinition;
+import io.cucumber.eclipse.editor.steps.StepDefinition;
+import io.cucumber.eclipse.java.JDTUtil;
+
+/**
+ * Finds step definitions statically with the JDT search index instead of
+ * running cucumber, so no user code is loaded or initialized.
+ * <p>
+ * All annotations of the <code>io.cucumber.java.*</code> packages that are
+ * meta-annotated as step definition annotation are collected from the
+ * classpath of the project, then all methods referencing them in sources,
+ * referenced projects and jars are read from the Java model. The results are
+ * kept per compilation unit (or class file) and updated from Java element
+ * deltas as soon as a compilation unit is saved, changes of the classpath or
+ * of jars discard the results of the project.
+ * </p>
+ *
+ * @author christoph
+ *
+ */
+final class JavaGlueIndex {
+
+	private static final String STEP_DEFINITION_ANNOTATION = "io.cucumber.java.StepDefinitionAnnotation";
+
+	private static final String ANNOTATION_PACKAGES = "io.cucumber.java.*";
+
+	private static final ConcurrentMap<IJavaProject, ProjectGlue> INDEX = new ConcurrentHashMap<>();
+
+	static {
+		JavaCore.addElementChangedListener(event -> {
+			if (!INDEX.isEmpty()) {
+				update(event.getDelta());
+			}
+		}, ElementChangedEvent.POST_CHANGE);
+	}
+
+	private JavaGlueIndex() {
+	}
+
+	/**
+	 * @param project the project
+	 * @param monitor the progress monitor
+	 * @return all step definitions declared on the classpath of the project
+	 * @throws CoreException if the search fails
+	 */
+	static List<StepDefinition> getStepDefinitions(IJavaProject project, IProgressMonitor monitor)
+			throws CoreException {
+		ProjectGlue glue = INDEX.get(project);
+		if (glue == null) {
+			glue = search(project, monitor);
+			ProjectGlue existing = INDEX.putIfAbsent(project, glue);
+			if (existing != null) {
+				glue = existing;
+			}
+		}
+		return glue.units.values().stream().flatMap(List::stream).collect(Collectors.toList());
+	}
+
+	private static ProjectGlue search(IJavaProject project, IProgressMonitor monitor) throws CoreException {
+		ProjectGlue glue = new ProjectGlue(findStepAnnotations(project, monitor), new ConcurrentHashMap<>());
+		SearchPattern pattern = null;
+		for (String annotation : glue.annotations) {
+			SearchPattern annotationPattern = SearchPattern.createPattern(annotation, IJavaSearchConstants.TYPE,
+					IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
+					SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+			pattern = pattern == null ? annotationPattern : SearchPattern.createOrPattern(pattern, annotationPattern);
+		}
+		if (pattern == null) {
+			return glue;
+		}
+		IJavaSearchScope scope = SearchEngine.createJavaSearchScope(new IJavaElement[] { project },
+				IJavaSearchScope.SOURCES | IJavaSearchScope.APPLICATION_LIBRARIES
+						| IJavaSearchScope.REFERENCED_PROJECTS);
+		Set<IMethod> methods = new LinkedHashSet<>();
+		JavaStepDefinitionsProvider.jdtSearch(new SearchEngine(), pattern, scope, new SearchRequestor() {
+
+			@Override
+			public void acceptSearchMatch(SearchMatch match) {
+				if (match.getElement() instanceof IMethod) {
+					methods.add((IMethod) match.getElement());
+				}
+			}
+		}, monitor);
+		for (IMethod method : methods) {
+			List<StepDefinition> definitions = getStepDefinitions(method, glue.annotations);
+			if (!definitions.isEmpty()) {
+				glue.units.computeIfAbsent(method.getOpenable(), o -> new ArrayList<>()).addAll(definitions);
+			}
+		}
+		return glue;
+	}
+
+	/**
+	 * @return the qualified names of all step definition annotations on the
+	 *         classpath of the project
+	 */
+	private static Set<String> findStepAnnotations(IJavaProject project, IProgressMonitor monitor)
+			throws CoreException {
+		SearchPattern pattern = SearchPattern.createPattern(ANNOTATION_PACKAGES, IJavaSearchConstants.PACKAGE,
+				IJavaSearchConstants.DECLARATIONS, SearchPattern.R_PATTERN_MATCH | SearchPattern.R_CASE_SENSITIVE);
+		IJavaSearchScope scope = SearchEngine.createJavaSearchScope(new IJavaElement[] { project });
+		Set<String> annotations = new TreeSet<>();
+		JavaStepDefinitionsProvider.jdtSearch(new SearchEngine(), pattern, scope, new SearchRequestor() {
+
+			@Override
+			public void acceptSearchMatch(SearchMatch match) {
+				if (match.getAccuracy() != SearchMatch.A_ACCURATE
+						|| !(match.getElement() instanceof IPackageFragment)) {
+					return;
+				}
+				try {
+					for (IClassFile classFile : ((IPackageFragment) match.getElement()).getOrdinaryClassFiles()) {
+						IType type = classFile.findPrimaryType();
+						if (type != null && type.isAnnotation() && isStepAnnotation(type)) {
+							annotations.add(type.getFullyQualifiedName());
+						}
+					}
+				} catch (JavaModelException e) {
+				}
+			}
+		}, monitor);
+		return annotations;
+	}
+
+	private static boolean isStepAnnotation(IType type) throws JavaModelException {
+		for (IAnnotation annotation : type.getAnnotations()) {
+			if (STEP_DEFINITION_ANNOTATION.equals(annotation.getElementName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static List<StepDefinition> getStepDefinitions(IMethod method, Set<String> stepAnnotations) {
+		List<StepDefinition> definitions = new ArrayList<>();
+		try {
+			IType type = method.getDeclaringType();
+			for (IAnnotation annotation : method.getAnnotations()) {
+				if (!stepAnnotations.contains(qualifiedName(type, annotation))) {
+					continue;
+				}
+				String text = JavaStepDefinitionsProvider.getAnnotationText(annotation);
+				definitions.add(new StepDefinition(method.getHandleIdentifier(), JDTUtil.getMethodName(method),
+						new ExpressionDefinition(text), type.getResource(),
+						() -> JavaStepDefinitionsProvider.getLineNumber(method), method.getElementName(),
+						type.getPackageFragment().getElementName(), JDTUtil.getLibrary(type),
+						() -> JavaStepDefinitionsProvider.getParameters(method), () -> JDTUtil.getJavadoc(method)));
+			}
+		} catch (JavaModelException e) {
+			// not readable at the moment, the next change will index it again
+		}
+		return definitions;
+	}
+
+	private static String qualifiedName(IType type, IAnnotation annotation) throws JavaModelException {
+		String name = annotation.getElementName();
+		if (type.isBinary()) {
+			// binary annotations are always qualified
+			return name;
+		}
+		String[][] resolved = JDTUtil.resolveTypeWithRetry(type, name);
+		if (resolved == null || resolved.length != 1) {
+			return name;
+		}
+		return resolved[0][0].isEmpty() ? resolved[0][1] : resolved[0][0] + "." + resolved[0][1];
+	}
+
+	private static List<StepDefinition> scan(ICompilationUnit compilationUnit, Set<String> stepAnnotations) {
+		List<StepDefinition> definitions = new ArrayList<>();
+		try {
+			for (IType type : compilationUnit.getAllTypes()) {
+				for (IMethod method : type.getMethods()) {
+					definitions.addAll(getStepDefinitions(method, stepAnnotations));
+				}
+			}
+		} catch (JavaModelException e) {
+			// not readable at the moment, the next change will index it again
+		}
+		return definitions;
+	}
+
+	private static void update(IJavaElementDelta delta) {
+		IJavaElement element = delta.getElement();
+		int flags = delta.getFlags();
+		switch (element.getElementType()) {
+		case IJavaElement.JAVA_PROJECT:
+			if (delta.getKind() == IJavaElementDelta.REMOVED || (flags & (IJavaElementDelta.F_CLOSED
+					| IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED)) != 0) {
+				// other projects might see the glue of this project as well
+				INDEX.clear();
+				return;
+			}
+			break;
+		case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+			if (((IPackageFragmentRoot) element).isArchive() || (flags & (IJavaElementDelta.F_ADDED_TO_CLASSPATH
+					| IJavaElementDelta.F_REMOVED_FROM_CLASSPATH | IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED)) != 0) {
+				INDEX.clear();
+				return;
+			}
+			break;
+		case IJavaElement.PACKAGE_FRAGMENT:
+			if (delta.getKind() == IJavaElementDelta.REMOVED) {
+				for (ProjectGlue glue : INDEX.values()) {
+					glue.units.keySet().removeIf(unit -> element.equals(((IJavaElement) unit).getParent()));
+				}
+				return;
+			}
+			break;
+		case IJavaElement.COMPILATION_UNIT:
+			ICompilationUnit compilationUnit = (ICompilationUnit) element;
+			if (!compilationUnit.isPrimary()) {
+				// working copies are indexed once they are saved
+				return;
+			}
+			update(compilationUnit, delta.getKind() == IJavaElementDelta.REMOVED);
+			return;
+		default:
+			break;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			update(child);
+		}
+	}
+
+	private static void update(ICompilationUnit compilationUnit, boolean removed) {
+		for (Entry<IJavaProject, ProjectGlue> entry : INDEX.entrySet()) {
+			ProjectGlue glue = entry.getValue();
+			if (removed) {
+				glue.units.remove(compilationUnit);
+				continue;
+			}
+			IJavaProject project = entry.getKey();
+			if (!project.equals(compilationUnit.getJavaProject()) && !project.isOnClasspath(compilationUnit)) {
+				continue;
+			}
+			List<StepDefinition> definitions = scan(compilationUnit, glue.annotations);
+			if (definitions.isEmpty()) {
+				glue.units.remove(compilationUnit);
+			} else {
+				glue.units.put(compilationUnit, definitions);
+			}
+		}
+	}
+
+	/**
+	 * The step definitions visible from one project
+	 *
+	 * @param annotations the qualified names of the step definition annotations
+	 * @param units       the step definitions of each compilation unit or class
+	 *                    file
+	 */
+	private record ProjectGlue(Set<String> annotations, ConcurrentMap<IOpenable, List<StepDefinition>> units) {
+	}
+
+}
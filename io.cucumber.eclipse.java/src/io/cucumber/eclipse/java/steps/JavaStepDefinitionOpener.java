@@ -14,6 +14,7 @@ import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.jface.text.IDocument;
@@ -25,7 +26,10 @@ import org.eclipse.ui.IEditorPart;
 import org.eclipse.ui.PartInitException;
 import org.osgi.service.component.annotations.Component;
 
+import io.cucumber.eclipse.editor.document.GherkinEditorDocument;
 import io.cucumber.eclipse.editor.hyperlinks.IStepDefinitionOpener;
+import io.cucumber.eclipse.editor.steps.StepDefinition;
+import io.cucumber.eclipse.editor.steps.StepDefinitionIndex;
 import io.cucumber.eclipse.java.Activator;
 import io.cucumber.eclipse.java.JDTUtil;
 import io.cucumber.eclipse.java.plugins.CucumberCodeLocation;
@@ -75,6 +79,15 @@ public class JavaStepDefinitionOpener implements IStepDefinitionOpener {
 				@Override
 				public void run(IProgressMonitor monitor) throws CoreException {
 					try {
+						if (!CucumberGlueValidator.hasResults(document)) {
+							// don't wait for the first validation if the step is known from a previous
+							// session, the lookup might search the index so it is not done in the UI thread
+							IMethod[] persisted = findPersistedMethods(project, document, step);
+							if (persisted.length == 1) {
+								resolvedMethods.set(persisted);
+								return;
+							}
+						}
 						Collection<MatchedStep<?>> steps = CucumberGlueValidator
 								.getMatchedSteps(document, monitor);
 
@@ -131,6 +144,18 @@ public class JavaStepDefinitionOpener implements IStepDefinitionOpener {
 		return method != null && method.length > 0;
 	}
 
+	private static IMethod[] findPersistedMethods(IJavaProject project, IDocument document, Step step) {
+		GherkinEditorDocument editorDocument = GherkinEditorDocument.get(document);
+		if (editorDocument == null) {
+			return new IMethod[0];
+		}
+		Collection<StepDefinition> definitions = StepDefinitionIndex.INSTANCE
+				.findStepDefinitions(project.getProject(), step.getText(), editorDocument.getLocale());
+		return definitions.stream().filter(definition -> definition.getId() != null)
+				.map(definition -> JavaCore.create(definition.getId())).filter(IMethod.class::isInstance)
+				.map(IMethod.class::cast).filter(IMethod::exists).distinct().toArray(IMethod[]::new);
+	}
+
 	@Override
 	public boolean canOpen(IResource resource) throws CoreException {
 		return JDTUtil.getJavaProject(resource) != null;
@@ -29,11 +29,10 @@ import org.eclipse.jdt.core.search.SearchMatch;
 import org.eclipse.jdt.core.search.SearchParticipant;
 import org.eclipse.jdt.core.search.SearchPattern;
 import org.eclipse.jdt.core.search.SearchRequestor;
-import org.eclipse.jface.text.BadLocationException;
-import org.eclipse.jface.text.Document;
 
 import io.cucumber.eclipse.editor.steps.IStepDefinitionsProvider;
 import io.cucumber.eclipse.editor.steps.ParameterType;
+import io.cucumber.eclipse.editor.steps.StepDefinition;
 import io.cucumber.eclipse.editor.steps.StepParameter;
 import io.cucumber.eclipse.java.CucumberAnnotation;
 import io.cucumber.eclipse.java.JDTUtil;
@@ -104,11 +103,37 @@ public abstract class JavaStepDefinitionsProvider implements IStepDefinitionsPro
 	 */
 	protected static int getLineNumber(ICompilationUnit compUnit, ISourceReference annotation)
 			throws JavaModelException {
-		Document document = new Document(compUnit.getBuffer().getContents());
+		return LineTables.getLineNumber(compUnit, annotation.getSourceRange().getOffset());
+	}
+
+	/**
+	 * @param method the method
+	 * @return the line number of the method or
+	 *         {@link StepDefinition#NO_LINE_NUMBER} if it is unknown (e.g. for
+	 *         binary methods)
+	 */
+	protected static int getLineNumber(IMethod method) {
+		ICompilationUnit compilationUnit = method.getCompilationUnit();
+		if (compilationUnit == null) {
+			return StepDefinition.NO_LINE_NUMBER;
+		}
+		try {
+			return getLineNumber(compilationUnit, method);
+		} catch (JavaModelException e) {
+			return StepDefinition.NO_LINE_NUMBER;
+		}
+	}
+
+	/**
+	 * @param method the method
+	 * @return the parameters of the method or <code>null</code> if they can't be
+	 *         read
+	 */
+	protected static StepParameter[] getParameters(IMethod method) {
 		try {
-			return document.getLineOfOffset(annotation.getSourceRange().getOffset()) + 1;
-		} catch (BadLocationException e) {
-			return -1;
+			return getParameter(method);
+		} catch (JavaModelException e) {
+			return null;
 		}
 	}
 
@@ -0,0 +1,117 @@
+package io.cucumber.eclipse.java.steps;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * Caches the offsets of all line starts per compilation unit, so line numbers
+ * of Java elements can be computed without creating a document of the whole
+ * source each time.
+ * <p>
+ * Tables are dropped as soon as JDT reports a change of the compilation unit
+ * (including changes of working copies while typing).
+ * </p>
+ * 
+ * @author christoph
+ *
+ */
+final class LineTables {
+
+	private static final ConcurrentMap<ICompilationUnit, int[]> TABLES = new ConcurrentHashMap<>();
+
+	static {
+		JavaCore.addElementChangedListener(event -> {
+			if (!TABLES.isEmpty()) {
+				invalidate(event.getDelta());
+			}
+		}, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+	}
+
+	private LineTables() {
+	}
+
+	/**
+	 * Computes the (1-based) line number of an offset in the compilation unit
+	 * 
+	 * @param compilationUnit the compilation unit
+	 * @param offset          the offset in the source
+	 * @return the line number or <code>-1</code> if the offset is outside the
+	 *         source
+	 * @throws JavaModelException if the source can't be read
+	 */
+	static int getLineNumber(ICompilationUnit compilationUnit, int offset) throws JavaModelException {
+		int[] lineStarts = TABLES.get(compilationUnit);
+		if (lineStarts == null) {
+			lineStarts = computeLineStarts(compilationUnit.getBuffer());
+			if (lineStarts == null) {
+				return -1;
+			}
+			TABLES.put(compilationUnit, lineStarts);
+		}
+		if (offset < 0 || offset > lineStarts[lineStarts.length - 1]) {
+			return -1;
+		}
+		int index = Arrays.binarySearch(lineStarts, 0, lineStarts.length - 1, offset);
+		return index >= 0 ? index + 1 : -index - 1;
+	}
+
+	/**
+	 * @return the start offset of each line followed by the length of the source
+	 */
+	private static int[] computeLineStarts(IBuffer buffer) {
+		if (buffer == null) {
+			return null;
+		}
+		String contents = buffer.getContents();
+		if (contents == null) {
+			return null;
+		}
+		int[] lineStarts = new int[16];
+		int lines = 1;
+		int length = contents.length();
+		for (int i = 0; i < length; i++) {
+			char c = contents.charAt(i);
+			if (c == '\r' && i + 1 < length && contents.charAt(i + 1) == '\n') {
+				i++;
+			} else if (c != '\r' && c != '\n') {
+				continue;
+			}
+			if (lines == lineStarts.length) {
+				lineStarts = Arrays.copyOf(lineStarts, lines * 2);
+			}
+			lineStarts[lines++] = i + 1;
+		}
+		lineStarts = Arrays.copyOf(lineStarts, lines + 1);
+		lineStarts[lines] = length;
+		return lineStarts;
+	}
+
+	private static void invalidate(IJavaElementDelta delta) {
+		IJavaElement element = delta.getElement();
+		if (element instanceof ICompilationUnit) {
+			TABLES.remove(element);
+			// a working copy shares its table with the primary unit
+			TABLES.remove(((ICompilationUnit) element).getPrimary());
+			return;
+		}
+		if (delta.getKind() == IJavaElementDelta.REMOVED
+				|| (delta.getFlags() & (IJavaElementDelta.F_CLOSED | IJavaElementDelta.F_CLASSPATH_CHANGED)) != 0) {
+			// a whole project or package went away, simply start over
+			TABLES.clear();
+			return;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			invalidate(child);
+		}
+	}
+
+}
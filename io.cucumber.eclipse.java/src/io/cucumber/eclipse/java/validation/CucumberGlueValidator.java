@@ -1,16 +1,21 @@
 package io.cucumber.eclipse.java.validation;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.filebuffers.FileBuffers;
 import org.eclipse.core.filebuffers.IDocumentSetupParticipant;
 import org.eclipse.core.filebuffers.IFileBuffer;
 import org.eclipse.core.filebuffers.IFileBufferListener;
 import org.eclipse.core.filebuffers.ITextFileBuffer;
+import org.eclipse.core.filebuffers.LocationKind;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -22,11 +27,17 @@ import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.IJobChangeListener;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.core.runtime.jobs.JobGroup;
 import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IDocumentListener;
 
 import io.cucumber.eclipse.editor.document.GherkinEditorDocument;
+import io.cucumber.eclipse.editor.document.GherkinStream;
+import io.cucumber.eclipse.editor.marker.EditorAnnotations;
+import io.cucumber.eclipse.editor.marker.MarkerFactory;
+import io.cucumber.eclipse.editor.marker.MarkerUpdate;
 import io.cucumber.eclipse.java.plugins.CucumberStepDefinition;
 import io.cucumber.eclipse.java.plugins.MatchedStep;
 
@@ -64,6 +75,24 @@ public class CucumberGlueValidator implements IDocumentSetupParticipant {
 	 */
 	private static ConcurrentMap<IDocument, GlueJob> jobMap = new ConcurrentHashMap<>();
 
+	/**
+	 * Maps closed files to their currently running or scheduled validation jobs
+	 * of a project validation.
+	 */
+	private static ConcurrentMap<IFile, GlueJob> fileJobs = new ConcurrentHashMap<>();
+
+	/**
+	 * Maximum number of jobs of a project validation that run (and hold the text
+	 * of their file) at the same time
+	 */
+	private static final int MAX_RUNNING_DOCUMENTS = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Number of files whose markers of a project validation are written in one
+	 * workspace operation
+	 */
+	private static final int MARKER_CHUNK_SIZE = 50;
+
 	static {
 		/*
 		 * Listens for file buffer lifecycle events to clean up validation jobs
@@ -99,6 +128,13 @@ public class CucumberGlueValidator implements IDocumentSetupParticipant {
 
 			@Override
 			public void dirtyStateChanged(IFileBuffer buffer, boolean isDirty) {
+				if (!isDirty && buffer instanceof ITextFileBuffer && EditorAnnotations.isEnabled()) {
+					IDocument document = ((ITextFileBuffer) buffer).getDocument();
+					if (jobMap.containsKey(document)) {
+						// the document was saved (or reverted), results are written as markers now
+						revalidate(document);
+					}
+				}
 			}
 
 			@Override
@@ -364,6 +400,27 @@ public class CucumberGlueValidator implements IDocumentSetupParticipant {
 		return Collections.emptyList();
 	}
 
+	/**
+	 * Checks if results of a completed validation are available for the specified
+	 * document.
+	 * <p>
+	 * This is not the case right after the document was opened, callers that
+	 * can't wait for the first validation might use persisted data instead.
+	 * </p>
+	 * 
+	 * @param document the document to check
+	 * @return {@code true} if {@link #getMatchedSteps(IDocument, IProgressMonitor)}
+	 *         and {@link #getAvailableSteps(IDocument, IProgressMonitor)} return
+	 *         without waiting for the first validation
+	 */
+	public static boolean hasResults(IDocument document) {
+		if (document == null) {
+			return false;
+		}
+		GlueJob job = jobMap.get(document);
+		return job != null && job.validated;
+	}
+
 	/**
 	 * Triggers validation for all feature files in the specified project.
 	 * <p>
@@ -386,19 +443,100 @@ public class CucumberGlueValidator implements IDocumentSetupParticipant {
 	 * @throws CoreException if resource visitation fails due to workspace issues
 	 */
 	public static void validateProject(IProject project, IProgressMonitor monitor) throws CoreException {
+		List<IFile> featureFiles = new ArrayList<>();
 		project.accept(new IResourceVisitor() {
 			@Override
 			public boolean visit(IResource resource) throws CoreException {
 				if (resource instanceof IFile) {
 					IFile file = (IFile) resource;
 					if ("feature".equals(file.getFileExtension())) {
-						validate(GherkinEditorDocument.get(file));
+						ITextFileBuffer buffer = FileBuffers.getTextFileBufferManager()
+								.getTextFileBuffer(file.getFullPath(), LocationKind.IFILE);
+						if (buffer != null) {
+							// opened files are validated with their editor document
+							revalidate(buffer.getDocument());
+						} else {
+							featureFiles.add(file);
+						}
 					}
 				}
 				return true;
 			}
 		});
+		// markers of closed files are written in chunks, so the pending changes don't
+		// grow with the size of the project
+		MarkerUpdate markerUpdate = new MarkerUpdate();
+		JobGroup group = new JobGroup("Verify Cucumber Glue Code of " + project.getName(), MAX_RUNNING_DOCUMENTS,
+				0);
+		AtomicInteger pending = new AtomicInteger(1);
+		Runnable done = () -> {
+			if (pending.decrementAndGet() == 0 || markerUpdate.size() >= MARKER_CHUNK_SIZE) {
+				markerUpdate.apply();
+			}
+		};
+		try {
+			// files are only parsed to their AST here, the text is read again by the job
+			// once it runs, so only running jobs hold the text of their file
+			GherkinStream.parse(featureFiles, (file, stream) -> {
+				if (stream == null) {
+					return;
+				}
+				if (stream.getParseError().findAny().isPresent()) {
+					// the feature has syntax errors, we can't check the glue then...
+					try (MarkerUpdate.Binding binding = markerUpdate.bind()) {
+						MarkerFactory.clearGlueValidationError(file, "glue_validation_error");
+						GlueJob.clearMarkers(file);
+					}
+					return;
+				}
+				pending.incrementAndGet();
+				validate(file, markerUpdate, group, done);
+			}, monitor);
+		} finally {
+			done.run();
+		}
+	}
 
+	/**
+	 * Schedules validation of the given closed file, a validation of the same
+	 * file that is still pending is canceled
+	 * 
+	 * @param file         the file to validate
+	 * @param markerUpdate the update that collects the markers of closed files
+	 * @param group        the group that bounds the number of running jobs
+	 * @param done         called when the validation is done
+	 */
+	private static void validate(IFile file, MarkerUpdate markerUpdate, JobGroup group, Runnable done) {
+		GlueJob oldJob;
+		GlueJob verificationJob;
+		synchronized (fileJobs) {
+			oldJob = fileJobs.get(file);
+			verificationJob = new GlueJob(oldJob, () -> {
+				try {
+					return GherkinEditorDocument.read(file);
+				} catch (CoreException | IOException e) {
+					return null;
+				}
+			}, markerUpdate);
+			fileJobs.put(file, verificationJob);
+		}
+		if (oldJob != null) {
+			// canceled outside of the lock as listeners are notified synchronously
+			oldJob.cancel();
+			oldJob.disposeListener();
+		}
+		verificationJob.setUser(false);
+		verificationJob.setPriority(Job.DECORATE);
+		verificationJob.setJobGroup(group);
+		verificationJob.addJobChangeListener(new JobChangeAdapter() {
+			@Override
+			public void done(IJobChangeEvent event) {
+				// the job references the document, don't keep it once it is done
+				fileJobs.remove(file, verificationJob);
+				done.run();
+			}
+		});
+		verificationJob.schedule();
 	}
 
 }
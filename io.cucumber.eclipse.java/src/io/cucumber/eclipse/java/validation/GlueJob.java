@@ -38,7 +38,9 @@ import io.cucumber.core.gherkin.FeatureParserException;
 import io.cucumber.core.options.RuntimeOptionsBuilder;
 import io.cucumber.eclipse.editor.Tracing;
 import io.cucumber.eclipse.editor.document.GherkinEditorDocument;
+import io.cucumber.eclipse.editor.marker.EditorAnnotations;
 import io.cucumber.eclipse.editor.marker.MarkerFactory;
+import io.cucumber.eclipse.editor.marker.MarkerUpdate;
 import io.cucumber.eclipse.java.Activator;
 import io.cucumber.eclipse.java.JDTUtil;
 import io.cucumber.eclipse.java.plugins.CucumberMatchedStepsPlugin;
@@ -48,6 +50,7 @@ import io.cucumber.eclipse.java.plugins.CucumberStepParserPlugin;
 import io.cucumber.eclipse.java.plugins.MatchedStep;
 import io.cucumber.eclipse.java.preferences.CucumberJavaPreferences;
 import io.cucumber.eclipse.java.runtime.CucumberRuntime;
+import io.cucumber.eclipse.java.steps.CucumberStepDefinitionProvider;
 import io.cucumber.plugin.Plugin;
 
 final class GlueJob extends Job {
@@ -57,15 +60,34 @@ final class GlueJob extends Job {
 
 	volatile Collection<MatchedStep<?>> matchedSteps;
 	volatile Collection<CucumberStepDefinition> parsedSteps;
+	/**
+	 * <code>true</code> once the glue code was validated for the document
+	 */
+	volatile boolean validated;
 	private Supplier<GherkinEditorDocument> documentSupplier;
+	private MarkerUpdate batch;
 
 	GlueJob(GlueJob oldJob, Supplier<GherkinEditorDocument> documentSupplier) {
+		this(oldJob, documentSupplier, null);
+	}
+
+	/**
+	 * @param oldJob           the job to wait for
+	 * @param documentSupplier supplier for the document to validate
+	 * @param batch            if not <code>null</code> the marker changes of this
+	 *                         job are collected in the given update and must be
+	 *                         applied by the caller, otherwise they are applied at
+	 *                         the end of the validation
+	 */
+	GlueJob(GlueJob oldJob, Supplier<GherkinEditorDocument> documentSupplier, MarkerUpdate batch) {
 		super("Verify Cucumber Glue Code");
 		this.oldJob = oldJob;
 		this.documentSupplier = documentSupplier;
+		this.batch = batch;
 		if (oldJob != null) {
 			this.matchedSteps = oldJob.matchedSteps;
 			this.parsedSteps = oldJob.parsedSteps;
+			this.validated = oldJob.validated;
 		} else {
 			this.matchedSteps = Collections.emptySet();
 			this.parsedSteps = Collections.emptySet();
@@ -106,53 +128,93 @@ final class GlueJob extends Job {
 				monitor.subTask(resource.getName());
 				IJavaProject javaProject = JDTUtil.getJavaProject(resource);
 				if (javaProject != null) {
-					long start = System.currentTimeMillis();
-					DebugTrace debug = Tracing.get();
-					debug.traceEntry(PERFORMANCE_STEPS, resource);
-					// Clear any existing glue validation error markers at the start
-					MarkerFactory.clearGlueValidationError(resource, "glue_validation_error");
-					CucumberJavaPreferences projectProperties = getProperties(editorDocument);
-					try (CucumberRuntime rt = CucumberRuntime.create(javaProject)) {
-						rt.setGenerator(new IncrementingUuidGenerator());
-						RuntimeOptionsBuilder runtimeOptions = rt.getRuntimeOptions();
-						runtimeOptions.setDryRun();
-						try {
-							rt.addFeature(editorDocument);
-						} catch (FeatureParserException e) {
+					MarkerUpdate markerUpdate = batch == null ? new MarkerUpdate() : batch;
+					try (MarkerUpdate.Binding binding = markerUpdate.bind()) {
+						long start = System.currentTimeMillis();
+						DebugTrace debug = Tracing.get();
+						debug.traceEntry(PERFORMANCE_STEPS, resource);
+						// Clear any existing glue validation error markers at the start
+						MarkerFactory.clearGlueValidationError(resource, "glue_validation_error");
+						if (editorDocument.getParseError().findAny().isPresent()) {
 							// the feature has syntax errors, we can't check the glue then...
-							return Status.CANCEL_STATUS;
+							clearResults(resource, editorDocument);
+							return Status.OK_STATUS;
 						}
-						addGlueOptions(runtimeOptions, projectProperties);
-						CucumberMissingStepsPlugin missingStepsPlugin = new CucumberMissingStepsPlugin();
-						CucumberStepParserPlugin stepParserPlugin = new CucumberStepParserPlugin();
-						CucumberMatchedStepsPlugin matchedStepsPlugin = new CucumberMatchedStepsPlugin();
-						rt.addPlugin(stepParserPlugin);
-						rt.addPlugin(matchedStepsPlugin);
-						rt.addPlugin(missingStepsPlugin);
-						Collection<Plugin> validationPlugins = addValidationPlugins(editorDocument, rt,
-								projectProperties);
-						try {
-							rt.run(monitor);
-							Map<Integer, String> validationErrors = new HashMap<>();
-							for (Plugin plugin : validationPlugins) {
-								addErrors(plugin, validationErrors);
+						CucumberJavaPreferences projectProperties = getProperties(editorDocument);
+						try (CucumberRuntime rt = CucumberRuntime.create(javaProject)) {
+							rt.setGenerator(new IncrementingUuidGenerator());
+							RuntimeOptionsBuilder runtimeOptions = rt.getRuntimeOptions();
+							runtimeOptions.setDryRun();
+							OutlineTemplates outlineTemplates = new OutlineTemplates(editorDocument);
+							try {
+								rt.addFeature(editorDocument, outlineTemplates.getText());
+							} catch (FeatureParserException e) {
+								// the feature has syntax errors, we can't check the glue then...
+								clearResults(resource, editorDocument);
+								return Status.OK_STATUS;
+							}
+							addGlueOptions(runtimeOptions, projectProperties);
+							CucumberMissingStepsPlugin missingStepsPlugin = new CucumberMissingStepsPlugin();
+							CucumberStepParserPlugin stepParserPlugin = new CucumberStepParserPlugin();
+							CucumberMatchedStepsPlugin matchedStepsPlugin = new CucumberMatchedStepsPlugin();
+							rt.addPlugin(stepParserPlugin);
+							rt.addPlugin(matchedStepsPlugin);
+							rt.addPlugin(missingStepsPlugin);
+							Collection<Plugin> validationPlugins = addValidationPlugins(editorDocument, rt,
+									projectProperties);
+							try {
+								rt.run(monitor);
+								Map<Integer, String> validationErrors = new HashMap<>();
+								for (Plugin plugin : validationPlugins) {
+									addErrors(plugin, validationErrors);
+								}
+								Map<Integer, Collection<String>> snippets = missingStepsPlugin.getSnippets();
+								Collection<Integer> unmatchedRows = outlineTemplates
+										.getUnmatchedRows(missingStepsPlugin.getTestCaseSteps());
+								IDocument document = editorDocument.getDocument();
+								if (batch == null && EditorAnnotations.isEditorOnly(document)) {
+									// the document is modified, markers are updated once it is saved
+									EditorAnnotations.update(document, MarkerFactory.STEPDEF_VALIDATION_ERROR,
+											EditorAnnotations.ERROR_TYPE, validationErrors);
+									EditorAnnotations.update(document, MarkerFactory.UNMATCHED_STEP,
+											EditorAnnotations.UNMATCHED_STEP_TYPE,
+											messages(snippets.keySet(), "Step does not have a matching glue code"));
+									EditorAnnotations.update(document, MarkerFactory.SCENARIO_OUTLINE_EXAMPLE_UNMATCH,
+											EditorAnnotations.UNMATCHED_STEP_TYPE,
+											messages(unmatchedRows, "No compatible step definition for this example"));
+								} else {
+									MarkerFactory.validationErrorOnStepDefinition(resource, validationErrors, false);
+									MarkerFactory.missingSteps(resource, editorDocument, snippets, Activator.PLUGIN_ID,
+											false);
+									MarkerFactory.gherkinStepExampleUnmatch(resource, document, unmatchedRows,
+											Activator.PLUGIN_ID, false);
+									EditorAnnotations.clear(document, MarkerFactory.STEPDEF_VALIDATION_ERROR);
+									EditorAnnotations.clear(document, MarkerFactory.UNMATCHED_STEP);
+									EditorAnnotations.clear(document, MarkerFactory.SCENARIO_OUTLINE_EXAMPLE_UNMATCH);
+								}
+								Collection<CucumberStepDefinition> steps = stepParserPlugin.getStepList();
+								matchedSteps = Collections.unmodifiableCollection(
+										outlineTemplates.expandHooks(matchedStepsPlugin.getMatchedSteps()));
+								parsedSteps = Collections.unmodifiableCollection(stepParserPlugin.getStepList());
+								validated = true;
+								CucumberStepDefinitionProvider.stepsValidated(javaProject, parsedSteps, monitor);
+								debug.traceExit(PERFORMANCE_STEPS,
+										matchedSteps.size() + " step(s) /  " + steps.size() + " step(s)  matched, "
+												+ snippets.size() + " snippet(s) where suggested, "
+												+ outlineTemplates.getRemovedRows() + " duplicate example(s) skipped || total run time "
+												+ (System.currentTimeMillis() - start) + "ms)");
+							} catch (Throwable e) {
+								ILog.get().error("Validate Glue-Code failed", e);
+								// Create an error marker to notify the user
+								MarkerFactory.glueValidationError(resource,
+									"Failed to validate step definitions. Check that your project is properly configured and dependencies are available. See error log for details.",
+									"glue_validation_error");
 							}
-							Map<Integer, Collection<String>> snippets = missingStepsPlugin.getSnippets();
-							MarkerFactory.validationErrorOnStepDefinition(resource, validationErrors, false);
-							MarkerFactory.missingSteps(resource, snippets, Activator.PLUGIN_ID, false);
-							Collection<CucumberStepDefinition> steps = stepParserPlugin.getStepList();
-							matchedSteps = Collections.unmodifiableCollection(matchedStepsPlugin.getMatchedSteps());
-							parsedSteps = Collections.unmodifiableCollection(stepParserPlugin.getStepList());
-							debug.traceExit(PERFORMANCE_STEPS,
-									matchedSteps.size() + " step(s) /  " + steps.size() + " step(s)  matched, "
-											+ snippets.size() + " snippet(s) where suggested || total run time "
-											+ (System.currentTimeMillis() - start) + "ms)");
-						} catch (Throwable e) {
-							ILog.get().error("Validate Glue-Code failed", e);
-							// Create an error marker to notify the user
-							MarkerFactory.glueValidationError(resource,
-								"Failed to validate step definitions. Check that your project is properly configured and dependencies are available. See error log for details.",
-								"glue_validation_error");
+						}
+					} finally {
+						if (batch == null) {
+							// all markers of this pass are written in one workspace operation
+							markerUpdate.apply();
 						}
 					}
 				}
@@ -192,6 +254,45 @@ final class GlueJob extends Job {
 		return validationPlugins;
 	}
 
+	/**
+	 * Removes the results of previous validations, used if the document can't be
+	 * validated against the glue code anymore
+	 */
+	private void clearResults(IResource resource, GherkinEditorDocument editorDocument) {
+		IDocument document = editorDocument.getDocument();
+		if (batch == null && EditorAnnotations.isEditorOnly(document)) {
+			// keeps the outdated markers hidden until the document is saved
+			EditorAnnotations.update(document, MarkerFactory.STEPDEF_VALIDATION_ERROR, EditorAnnotations.ERROR_TYPE,
+					Map.of());
+			EditorAnnotations.update(document, MarkerFactory.UNMATCHED_STEP, EditorAnnotations.UNMATCHED_STEP_TYPE,
+					Map.of());
+			EditorAnnotations.update(document, MarkerFactory.SCENARIO_OUTLINE_EXAMPLE_UNMATCH,
+					EditorAnnotations.UNMATCHED_STEP_TYPE, Map.of());
+			return;
+		}
+		clearMarkers(resource);
+	}
+
+	/**
+	 * Removes all glue validation markers of the given resource, the text of the
+	 * resource is not needed for this
+	 * 
+	 * @param resource the resource
+	 */
+	static void clearMarkers(IResource resource) {
+		MarkerFactory.validationErrorOnStepDefinition(resource, Map.of(), false);
+		MarkerFactory.missingSteps(resource, Map.of(), Activator.PLUGIN_ID, false);
+		MarkerFactory.gherkinStepExampleUnmatch(resource, null, List.of(), Activator.PLUGIN_ID, false);
+	}
+
+	private static Map<Integer, String> messages(Collection<Integer> lines, String message) {
+		Map<Integer, String> messages = new HashMap<>();
+		for (Integer line : lines) {
+			messages.put(line, message);
+		}
+		return messages;
+	}
+
 	@SuppressWarnings("unchecked")
 	private static void addErrors(Plugin plugin, Map<Integer, String> validationErrors) {
 		try {
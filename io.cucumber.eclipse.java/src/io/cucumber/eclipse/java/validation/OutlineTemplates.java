@@ -0,0 +1,237 @@
+package io.cucumber.eclipse.java.validation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+
+import io.cucumber.eclipse.editor.document.GherkinEditorDocument;
+import io.cucumber.eclipse.java.plugins.MatchedHookStep;
+import io.cucumber.eclipse.java.plugins.MatchedStep;
+import io.cucumber.messages.types.Examples;
+import io.cucumber.messages.types.FeatureChild;
+import io.cucumber.messages.types.RuleChild;
+import io.cucumber.messages.types.Scenario;
+import io.cucumber.messages.types.Step;
+import io.cucumber.messages.types.TableCell;
+import io.cucumber.messages.types.TableRow;
+import io.cucumber.plugin.event.Location;
+
+/**
+ * Reduces the examples of scenario outlines to the rows that produce distinct
+ * steps before the feature is handed to the cucumber runtime.
+ * <p>
+ * Each examples row compiles to its own pickle that is matched against all glue
+ * code, but a templated step only needs to be matched once per distinct text
+ * it is substituted to. A row is only kept if it substitutes at least one
+ * templated step to a text that no earlier row of the same examples produced,
+ * all other rows are replaced by blank lines (so all line numbers stay the
+ * same). The results of a kept row are mapped back per step and substituted
+ * text to all rows that produce the same text afterwards.
+ * </p>
+ *
+ * @author christoph
+ *
+ */
+final class OutlineTemplates {
+
+	/**
+	 * first examples row line -> all row lines of the same examples that are not
+	 * validated and share its hooks
+	 */
+	private final Map<Integer, List<Integer>> rowGroups = new HashMap<>();
+	private final Set<Integer> removedRows = new TreeSet<>();
+	/**
+	 * examples row line -> templated step line -> substituted text of the step
+	 */
+	private final Map<Integer, Map<Integer, String>> rowTexts = new HashMap<>();
+	/**
+	 * templated step line -> substituted text -> all row lines producing it
+	 */
+	private final Map<Integer, Map<String, List<Integer>>> textRows = new HashMap<>();
+	private final IDocument document;
+
+	OutlineTemplates(GherkinEditorDocument editorDocument) {
+		this.document = editorDocument.getDocument();
+		editorDocument.getFeatureChilds().flatMap(OutlineTemplates::scenarios)
+				.filter(scenario -> !scenario.getExamples().isEmpty())
+				.forEach(scenario -> addScenario(editorDocument, scenario));
+	}
+
+	private void addScenario(GherkinEditorDocument editorDocument, Scenario scenario) {
+		for (Examples examples : scenario.getExamples()) {
+			TableRow header = examples.getTableHeader().orElse(null);
+			if (header == null) {
+				continue;
+			}
+			List<String> placeholders = new ArrayList<>();
+			for (TableCell name : header.getCells()) {
+				placeholders.add("<" + name.getValue() + ">");
+			}
+			Map<Integer, String> templates = new LinkedHashMap<>();
+			for (Step step : scenario.getSteps()) {
+				String text = stepText(step);
+				if (placeholders.stream().anyMatch(text::contains)) {
+					templates.put(step.getLocation().getLine().intValue(), text);
+				}
+			}
+			// rows are only removed in favor of rows of the same examples as they might
+			// have different tags and therefore different hooks
+			Map<Integer, Set<String>> seen = new HashMap<>();
+			List<Integer> group = null;
+			for (TableRow row : editorDocument.getTableBody(examples)) {
+				List<TableCell> cells = row.getCells();
+				int line = row.getLocation().getLine().intValue();
+				Map<Integer, String> texts = new HashMap<>();
+				boolean adds = group == null;
+				for (Map.Entry<Integer, String> template : templates.entrySet()) {
+					String text = substitute(template.getValue(), placeholders, cells);
+					texts.put(template.getKey(), text);
+					adds |= seen.computeIfAbsent(template.getKey(), l -> new HashSet<>()).add(text);
+					textRows.computeIfAbsent(template.getKey(), l -> new HashMap<>())
+							.computeIfAbsent(text, t -> new ArrayList<>()).add(line);
+				}
+				rowTexts.put(line, texts);
+				if (group == null) {
+					group = new ArrayList<>();
+					rowGroups.put(line, group);
+					group.add(line);
+				} else if (!adds) {
+					removedRows.add(line);
+					group.add(line);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Replaces the placeholders the same way the pickle compiler does
+	 */
+	private static String substitute(String template, List<String> placeholders, List<TableCell> cells) {
+		String text = template;
+		for (int i = 0; i < placeholders.size(); i++) {
+			String value = i < cells.size() ? cells.get(i).getValue() : "";
+			text = text.replace(placeholders.get(i), value);
+		}
+		return text;
+	}
+
+	private static Stream<Scenario> scenarios(FeatureChild child) {
+		Stream<Scenario> rules = child.getRule().stream().flatMap(rule -> rule.getChildren().stream())
+				.map(RuleChild::getScenario).flatMap(o -> o.stream());
+		return Stream.concat(child.getScenario().stream(), rules);
+	}
+
+	private static String stepText(Step step) {
+		StringBuilder sb = new StringBuilder();
+		appendText(step, sb);
+		return sb.toString();
+	}
+
+	private static void appendText(Step step, StringBuilder sb) {
+		sb.append(step.getText()).append('\n');
+		step.getDocString().ifPresent(docString -> sb.append(docString.getContent()).append('\n'));
+		step.getDataTable().stream().flatMap(table -> table.getRows().stream())
+				.flatMap(row -> row.getCells().stream())
+				.forEach(cell -> sb.append(cell.getValue()).append('\n'));
+	}
+
+	/**
+	 * @return the number of examples rows that do not need to be validated
+	 */
+	int getRemovedRows() {
+		return removedRows.size();
+	}
+
+	/**
+	 * @return the text of the document with all duplicate examples rows replaced
+	 *         by blank lines
+	 */
+	String getText() {
+		String text = document.get();
+		if (removedRows.isEmpty()) {
+			return text;
+		}
+		StringBuilder sb = new StringBuilder(text.length());
+		int offset = 0;
+		try {
+			for (Integer line : removedRows) {
+				IRegion region = document.getLineInformation(line - 1);
+				sb.append(text, offset, region.getOffset());
+				offset = region.getOffset() + region.getLength();
+			}
+		} catch (BadLocationException e) {
+			// document was changed concurrently, simply validate everything then
+			return text;
+		}
+		sb.append(text, offset, text.length());
+		return sb.toString();
+	}
+
+	/**
+	 * Computes the examples rows that have missing steps depending on the values
+	 * of the row, a missing step without placeholders is missing for all rows and
+	 * therefore only reported as a missing step.
+	 *
+	 * @param testCaseSteps the lines of the missing steps keyed by test case line
+	 * @return all examples row lines that have missing steps, including the ones
+	 *         that where not validated
+	 */
+	Collection<Integer> getUnmatchedRows(Map<Integer, Collection<Integer>> testCaseSteps) {
+		Collection<Integer> unmatched = new TreeSet<>();
+		for (Map.Entry<Integer, Collection<Integer>> entry : testCaseSteps.entrySet()) {
+			Map<Integer, String> texts = rowTexts.get(entry.getKey());
+			if (texts == null) {
+				continue;
+			}
+			for (Integer step : entry.getValue()) {
+				String text = texts.get(step);
+				if (text != null) {
+					// the step is missing for every row that substitutes it to the same text
+					unmatched.addAll(textRows.get(step).get(text));
+				}
+			}
+		}
+		return unmatched;
+	}
+
+	/**
+	 * Copies the hooks matched for a validated row to all other rows of its group
+	 *
+	 * @param matchedSteps the steps matched by the runtime
+	 * @return the steps including the hooks of rows that where not validated
+	 */
+	Collection<MatchedStep<?>> expandHooks(Collection<MatchedStep<?>> matchedSteps) {
+		if (removedRows.isEmpty()) {
+			return matchedSteps;
+		}
+		Collection<MatchedStep<?>> result = new LinkedHashSet<>(matchedSteps);
+		for (MatchedStep<?> step : matchedSteps) {
+			if (step instanceof MatchedHookStep) {
+				MatchedHookStep hook = (MatchedHookStep) step;
+				Location location = hook.getLocation();
+				List<Integer> group = rowGroups.get(location.getLine());
+				if (group != null) {
+					for (Integer line : group) {
+						if (line != location.getLine()) {
+							result.add(new MatchedHookStep(hook.getTestStep(), new Location(line, location.getColumn())));
+						}
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+}
@@ -9,6 +9,7 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 
 import io.cucumber.eclipse.editor.marker.MarkerFactory;
+import io.cucumber.eclipse.editor.marker.MarkerIndex;
 
 /**
  * Utility class for creating Python/Behave specific markers
@@ -46,6 +47,7 @@ public class BehaveMarkerFactory {
 			marker.setAttribute(IMarker.LINE_NUMBER, lineNumber);
 			marker.setAttribute(IMarker.TRANSIENT, !persistent);
 		}
+		MarkerIndex.update(resource, MarkerFactory.UNMATCHED_STEP, lineNumbers);
 	}
 	
 	/**